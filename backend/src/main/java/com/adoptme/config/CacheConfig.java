@@ -0,0 +1,41 @@
+package com.adoptme.config;
+
+import com.adoptme.dto.CursorPage;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.time.Duration;
+import java.util.Collection;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String PETS = "pets";
+    public static final String PET_LISTINGS = "petListings";
+
+    // Picked up by Boot's Caffeine cache manager when spring.cache.type=caffeine. The bound is on
+    // weight rather than entry count: a cached listing weighs as many pets as it holds, so one
+    // unpaginated listing cannot pin the whole table as a single entry.
+    @Bean
+    public Caffeine<Object, Object> petCacheBuilder(
+            @Value("${app.cache.max-weight:10000}") long maxWeight,
+            @Value("${app.cache.ttl:60s}") Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Object key, Object value) -> weigh(value))
+                .expireAfterWrite(ttl)
+                .recordStats();
+    }
+
+    private static int weigh(Object value) {
+        if (value instanceof Collection<?> items) {
+            return Math.max(1, items.size());
+        }
+        if (value instanceof CursorPage<?> page) {
+            return Math.max(1, page.getItems().size());
+        }
+        return 1;
+    }
+}
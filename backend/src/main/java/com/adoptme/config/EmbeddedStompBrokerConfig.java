@@ -0,0 +1,34 @@
+package com.adoptme.config;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// An in-process Artemis broker with a STOMP acceptor, for single-box deployments and local runs of
+// the relay mode. Other nodes can relay to it as well when it listens on a reachable host.
+// Messages are not persisted, matching what the simple broker offers.
+@Configuration
+@ConditionalOnProperty(name = "app.websocket.embedded-broker.enabled", havingValue = "true")
+public class EmbeddedStompBrokerConfig {
+
+    // /topic destinations fan out to every subscriber; /queue destinations (the per-session
+    // /user queues) are point to point.
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public EmbeddedActiveMQ embeddedStompBroker(
+            @Value("${app.websocket.embedded-broker.host:localhost}") String host,
+            @Value("${app.websocket.relay.port:61613}") int port) throws Exception {
+        ConfigurationImpl configuration = new ConfigurationImpl();
+        configuration.setPersistenceEnabled(false);
+        configuration.setSecurityEnabled(false);
+        configuration.setJMXManagementEnabled(false);
+        configuration.addAcceptorConfiguration("stomp", "tcp://" + host + ":" + port +
+                "?protocols=STOMP;anycastPrefix=/queue/;multicastPrefix=/topic/");
+
+        EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(configuration);
+        return broker;
+    }
+}
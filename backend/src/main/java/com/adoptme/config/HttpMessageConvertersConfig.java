@@ -0,0 +1,19 @@
+package com.adoptme.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@Configuration
+public class HttpMessageConvertersConfig {
+
+    // Built from Boot's builder so CBOR responses use the same modules and date settings as JSON.
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = builder.createXmlMapper(false).factory(new CBORFactory()).build();
+        return new MappingJackson2CborHttpMessageConverter(mapper);
+    }
+}
@@ -36,13 +36,15 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**", "/ws/**").permitAll()
-                .requestMatchers("/api/pets/my-pets").authenticated()
+                .requestMatchers(HttpMethod.GET, "/api/images/**").permitAll()
+                .requestMatchers("/api/pets/my-pets", "/api/pets/export/**", "/api/pets/upload-jobs/**").authenticated()
                 // Allows anyone to view pets
                 .requestMatchers(HttpMethod.GET, "/api/pets/**").permitAll()
                 // Fixes "Access Denied" for image uploads - must be logged in
-                .requestMatchers("/api/pets/upload-image").authenticated()
+                .requestMatchers("/api/pets/upload-image", "/api/pets/upload-images").authenticated()
                 // Restricted to specific roles
                 .requestMatchers(HttpMethod.POST, "/api/pets/add").hasAnyRole("COMMON_LISTER", "NGO_LISTER")
+                .requestMatchers(HttpMethod.POST, "/api/pets/import").hasRole("NGO_LISTER")
                 .requestMatchers(HttpMethod.PUT, "/api/pets/**").hasAnyRole("COMMON_LISTER", "NGO_LISTER")
                 .requestMatchers(HttpMethod.DELETE, "/api/pets/**").hasAnyRole("COMMON_LISTER", "NGO_LISTER")
                 .anyRequest().authenticated()
@@ -57,7 +59,8 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList(allowedOrigins.split(",")));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept", "If-None-Match", "If-Match"));
+        configuration.setExposedHeaders(Arrays.asList("ETag"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
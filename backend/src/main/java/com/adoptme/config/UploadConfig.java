@@ -0,0 +1,67 @@
+package com.adoptme.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class UploadConfig {
+    public static final String IMAGE_UPLOAD_EXECUTOR = "imageUploadExecutor";
+    public static final String IMAGE_VARIANT_EXECUTOR = "imageVariantExecutor";
+    public static final String UPLOAD_JOB_EXECUTOR = "uploadJobExecutor";
+
+    // Bounded so a burst of multi-file uploads cannot open unlimited connections to the storage
+    // backend; when the queue is full the request thread uploads the file itself, which slows the
+    // caller down instead of failing the request.
+    @Bean(name = IMAGE_UPLOAD_EXECUTOR)
+    public ThreadPoolTaskExecutor imageUploadExecutor(
+            @Value("${app.uploads.threads:8}") int threads,
+            @Value("${app.uploads.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-upload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    // Resizing is CPU-bound, so the pool is sized to the cores and rejects work when its queue is
+    // full; callers then serve the original image rather than stall a request thread.
+    @Bean(name = IMAGE_VARIANT_EXECUTOR)
+    public ThreadPoolTaskExecutor imageVariantExecutor(
+            @Value("${app.images.variant-threads:0}") int threads,
+            @Value("${app.images.variant-queue-capacity:100}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-variant-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Background workers for asynchronous upload jobs. The queue bound is the backlog we are willing
+    // to hold on disk; past it new jobs are refused rather than queued indefinitely.
+    @Bean(name = UPLOAD_JOB_EXECUTOR)
+    public ThreadPoolTaskExecutor uploadJobExecutor(
+            @Value("${app.uploads.jobs.threads:4}") int threads,
+            @Value("${app.uploads.jobs.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("upload-job-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
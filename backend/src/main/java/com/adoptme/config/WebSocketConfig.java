@@ -16,9 +16,41 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Value("${app.cors.allowed-origins}")
     private String allowedOrigins;
     
+    // "simple" keeps subscriptions in this process; "relay" forwards them to a STOMP broker shared
+    // by every backend node (see EmbeddedStompBrokerConfig for a broker that runs in-process).
+    @Value("${app.websocket.broker:simple}")
+    private String brokerMode;
+    
+    @Value("${app.websocket.relay.host:localhost}")
+    private String relayHost;
+    
+    @Value("${app.websocket.relay.port:61613}")
+    private int relayPort;
+    
+    @Value("${app.websocket.relay.login:guest}")
+    private String relayLogin;
+    
+    @Value("${app.websocket.relay.passcode:guest}")
+    private String relayPasscode;
+    
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    // /user destinations for sessions held by another node are resolved through the broker.
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else if ("simple".equalsIgnoreCase(brokerMode)) {
+            config.enableSimpleBroker("/topic", "/queue");
+        } else {
+            throw new IllegalStateException("Unknown app.websocket.broker: " + brokerMode);
+        }
         config.setApplicationDestinationPrefixes("/app");
     }
     
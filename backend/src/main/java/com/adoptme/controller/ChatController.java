@@ -2,13 +2,16 @@ package com.adoptme.controller;
 
 import com.adoptme.dto.ChatInboxItemDto;
 import com.adoptme.dto.ChatMessageDto;
+import com.adoptme.dto.CursorPage;
 import com.adoptme.security.UserPrincipal;
+import com.adoptme.service.ChatFanoutService;
 import com.adoptme.service.ChatService;
+import com.adoptme.service.ChatWriteBehindService;
+import com.adoptme.service.ReadReceiptService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -22,7 +25,14 @@ public class ChatController {
     private ChatService chatService;
     
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private ChatFanoutService chatFanoutService;
+    
+    @Autowired
+    private ReadReceiptService readReceiptService;
+    
+    // Present only when app.chat.write-behind.enabled=true.
+    @Autowired(required = false)
+    private ChatWriteBehindService chatWriteBehindService;
     
     @MessageMapping("/send")
     public void sendMessage(@Payload Map<String, Object> payload) {
@@ -30,31 +40,37 @@ public class ChatController {
         Long receiverId = Long.valueOf(payload.get("receiverId").toString());
         String content = payload.get("content").toString();
         
-        ChatMessageDto message = chatService.saveMessage(senderId, receiverId, content);
+        ChatMessageDto message = chatWriteBehindService != null
+                ? chatWriteBehindService.submit(senderId, receiverId, content)
+                : chatService.saveMessage(senderId, receiverId, content);
         
-        messagingTemplate.convertAndSendToUser(
-                receiverId.toString(),
-                "/queue/messages",
-                message
-        );
-
-        // Echo message to sender so chat updates instantly on sender side as well.
-        messagingTemplate.convertAndSendToUser(
-                senderId.toString(),
-                "/queue/messages",
-                message
-        );
-
-        String conversationTopic = "/topic/chat/" + getConversationKey(senderId, receiverId);
-        messagingTemplate.convertAndSend(conversationTopic, message);
+        chatFanoutService.broadcast(message);
+    }
+    
+    // Read acknowledgement from the chat window: {readerId, peerId, messageId}. Applied in batches.
+    @MessageMapping("/read")
+    public void acknowledgeRead(@Payload Map<String, Object> payload) {
+        Long readerId = Long.valueOf(payload.get("readerId").toString());
+        Long peerId = Long.valueOf(payload.get("peerId").toString());
+        Long messageId = Long.valueOf(payload.get("messageId").toString());
+        readReceiptService.acknowledge(readerId, peerId, messageId);
     }
     
+    // Without before/after/limit the full history is returned as before; any of them switches to
+    // cursor pages (see ChatService.getConversationPage).
     @GetMapping("/conversation")
-    public ResponseEntity<List<ChatMessageDto>> getConversation(
+    public ResponseEntity<?> getConversation(
             @RequestParam Long user1,
-            @RequestParam Long user2) {
-        List<ChatMessageDto> messages = chatService.getConversation(user1, user2);
-        return ResponseEntity.ok(messages);
+            @RequestParam Long user2,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (before == null && after == null && limit == null) {
+            List<ChatMessageDto> messages = chatService.getConversation(user1, user2);
+            return ResponseEntity.ok(messages);
+        }
+        CursorPage<ChatMessageDto> page = chatService.getConversationPage(user1, user2, before, after, limit);
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/inbox")
@@ -64,9 +80,11 @@ public class ChatController {
         return ResponseEntity.ok(inbox);
     }
 
-    private String getConversationKey(Long user1, Long user2) {
-        long a = Math.min(user1, user2);
-        long b = Math.max(user1, user2);
-        return a + "_" + b;
+    @PostMapping("/conversation/{peerId}/read")
+    public ResponseEntity<Void> markConversationRead(
+            @PathVariable Long peerId,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        chatService.markConversationRead(currentUser.getId(), peerId);
+        return ResponseEntity.noContent().build();
     }
 }
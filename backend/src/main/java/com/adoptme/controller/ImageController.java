@@ -0,0 +1,184 @@
+package com.adoptme.controller;
+
+import com.adoptme.service.ImageVariantService;
+import com.adoptme.service.LocalImageStorage;
+import com.adoptme.util.ImageVariant;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+// Serves blobs and their resized variants (/api/images/{thumb|card|full}/{name}) from the local
+// image store. Blobs are immutable (the name is the content hash), so they are cached forever. Bodies are written with Tomcat sendfile
+// when the connector supports it, otherwise with FileChannel.transferTo.
+@RestController
+@RequestMapping("/api/images")
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local")
+public class ImageController {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpg", "image/jpeg",
+            "png", "image/png",
+            "webp", "image/webp",
+            "gif", "image/gif"
+    );
+
+    @Autowired
+    private LocalImageStorage localImageStorage;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @GetMapping("/{name:.+}")
+    public void getImage(@PathVariable String name, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = findOriginal(name);
+        serve(file, "\"" + hashOf(name) + "\"", true, request, response);
+    }
+
+    @GetMapping("/{variant}/{name:.+}")
+    public void getImageVariant(
+            @PathVariable String variant,
+            @PathVariable String name,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        ImageVariant imageVariant = ImageVariant.fromKey(variant);
+        if (imageVariant == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Image not found");
+        }
+        Path original = findOriginal(name);
+        Path file = imageVariantService.getVariant(original, name, imageVariant);
+        if (file == null) {
+            // Resize pool is saturated: send the original now and let the client ask again later.
+            serve(original, null, false, request, response);
+            return;
+        }
+        serve(file, "\"" + hashOf(name) + "-" + imageVariant.key() + "\"", true, request, response);
+    }
+
+    private Path findOriginal(String name) {
+        Path file = localImageStorage.resolve(name);
+        if (file == null || !Files.isRegularFile(file)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Image not found");
+        }
+        return file;
+    }
+
+    private static String hashOf(String name) {
+        return name.substring(0, name.indexOf('.'));
+    }
+
+    private void serve(Path file, String etag, boolean immutable, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (immutable) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+        } else {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (etag != null && etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long length = Files.size(file);
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        String fileName = file.getFileName().toString();
+        response.setContentType(CONTENT_TYPES.getOrDefault(fileName.substring(fileName.indexOf('.') + 1), "application/octet-stream"));
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    // Returns {start, end} for a single satisfiable range, an empty array when the header should be
+    // ignored (multiple or malformed ranges are answered with the full body), or null when unsatisfiable.
+    private static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.contains(",")) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException ex) {
+            return new long[0];
+        }
+    }
+}
@@ -1,18 +1,37 @@
 package com.adoptme.controller;
 
+import com.adoptme.dto.CursorPage;
+import com.adoptme.dto.NearbyPetResponse;
+import com.adoptme.dto.PetFilter;
+import com.adoptme.dto.PetImportResponse;
 import com.adoptme.dto.PetRequest;
 import com.adoptme.dto.PetResponse;
+import com.adoptme.dto.PetSummary;
+import com.adoptme.dto.UploadJobResponse;
 import com.adoptme.security.UserPrincipal;
-import com.adoptme.service.CloudinaryService;
+import com.adoptme.service.ImageUploadService;
+import com.adoptme.service.PetExportService;
+import com.adoptme.service.PetFacetService;
+import com.adoptme.service.PetImportService;
 import com.adoptme.service.PetService;
+import com.adoptme.service.UploadJobService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/pets")
@@ -22,14 +41,47 @@ public class PetController {
     private PetService petService;
     
     @Autowired
-    private CloudinaryService cloudinaryService;
+    private ImageUploadService imageUploadService;
+
+    @Autowired
+    private PetFacetService petFacetService;
+
+    @Autowired
+    private PetExportService petExportService;
+
+    @Autowired
+    private PetImportService petImportService;
+
+    @Autowired
+    private UploadJobService uploadJobService;
     
     @PostMapping("/upload-image")
     public ResponseEntity<String> uploadImage(@RequestParam("file") MultipartFile file) throws IOException {
-        String imageUrl = cloudinaryService.uploadImage(file);
+        String imageUrl = imageUploadService.uploadImage(file);
         return ResponseEntity.ok(imageUrl);
     }
     
+    @PostMapping("/upload-images")
+    public ResponseEntity<List<String>> uploadImages(@RequestParam("files") List<MultipartFile> files) throws IOException {
+        List<String> imageUrls = imageUploadService.uploadImages(files);
+        return ResponseEntity.ok(imageUrls);
+    }
+    
+    @PostMapping("/upload-jobs")
+    public ResponseEntity<UploadJobResponse> submitUploadJob(
+            @RequestParam("file") MultipartFile file,
+            @AuthenticationPrincipal UserPrincipal currentUser) throws IOException {
+        UploadJobResponse job = uploadJobService.submit(file, currentUser.getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+    
+    @GetMapping("/upload-jobs/{jobId}")
+    public ResponseEntity<UploadJobResponse> getUploadJob(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        return ResponseEntity.ok(uploadJobService.getJob(jobId, currentUser.getId()));
+    }
+    
     @PostMapping("/add")
     public ResponseEntity<PetResponse> addPet(
             @Valid @RequestBody PetRequest request,
@@ -38,33 +90,110 @@ public class PetController {
         return ResponseEntity.ok(response);
     }
     
-    @GetMapping
-    public ResponseEntity<List<PetResponse>> getAllPets(
-            @RequestParam(required = false) String location,
-            @RequestParam(required = false) String type) {
-        List<PetResponse> pets = petService.getAllPets(location, type);
+    @PostMapping("/import")
+    public ResponseEntity<PetImportResponse> importPets(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format,
+            @AuthenticationPrincipal UserPrincipal currentUser) throws IOException {
+        PetImportResponse response = petImportService.importPets(
+                file.getInputStream(),
+                resolveImportFormat(format, file),
+                currentUser.getId()
+        );
+        return ResponseEntity.ok(response);
+    }
+    
+    // The listing is always paged (limit defaults to 20, at most 100); /page is an alias.
+    @GetMapping({"", "/page"})
+    public ResponseEntity<CursorPage<PetResponse>> getPetsPage(
+            PetFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<PetResponse> page = petService.getPetsPage(filter, cursor, limit);
+        return ResponseEntity.ok().eTag(listingEtag(page.getItems(), page.getNextCursor())).body(page);
+    }
+    
+    @GetMapping(value = {"", "/page"}, params = "fields")
+    public ResponseEntity<CursorPage<Map<String, Object>>> getPetsPageFields(
+            PetFilter filter,
+            @RequestParam String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(petService.getPetsPageFields(filter, fields, cursor, limit));
+    }
+    
+    @GetMapping("/summaries")
+    public ResponseEntity<CursorPage<PetSummary>> getPetSummaries(
+            PetFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(petService.getPetSummaries(filter, cursor, limit));
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<List<PetResponse>> searchPets(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit) {
+        List<PetResponse> pets = petService.searchPets(query, limit);
+        return ResponseEntity.ok(pets);
+    }
+    
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyPetResponse>> getNearbyPets(
+            @RequestParam Double lat,
+            @RequestParam Double lng,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Integer limit) {
+        List<NearbyPetResponse> pets = petService.getNearbyPets(lat, lng, radiusKm, limit);
         return ResponseEntity.ok(pets);
     }
     
+    @GetMapping("/facets")
+    public ResponseEntity<Map<String, Map<String, Long>>> getFacets() {
+        return ResponseEntity.ok(petFacetService.getFacets());
+    }
+    
+    @GetMapping("/export/ndjson")
+    public ResponseEntity<StreamingResponseBody> exportNdjson() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"pets.ndjson\"")
+                .body(petExportService::exportNdjson);
+    }
+
+    @GetMapping("/export/csv")
+    public ResponseEntity<StreamingResponseBody> exportCsv() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"pets.csv\"")
+                .body(petExportService::exportCsv);
+    }
+    
     @GetMapping("/{id}")
-    public ResponseEntity<PetResponse> getPetById(@PathVariable Long id) {
+    public ResponseEntity<PetResponse> getPetById(@PathVariable Long id, WebRequest webRequest) {
+        // Revalidation only needs the version column; a match is answered with 304 and no body.
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(petEtag(id, petService.getPetVersion(id)))) {
+            return null;
+        }
         PetResponse pet = petService.getPetById(id);
-        return ResponseEntity.ok(pet);
+        return ResponseEntity.ok().eTag(petEtag(pet.getId(), pet.getVersion())).body(pet);
     }
     
     @GetMapping("/my-pets")
     public ResponseEntity<List<PetResponse>> getMyPets(@AuthenticationPrincipal UserPrincipal currentUser) {
         List<PetResponse> pets = petService.getMyPets(currentUser.getId());
-        return ResponseEntity.ok(pets);
+        return ResponseEntity.ok().eTag(listingEtag(pets, null)).body(pets);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<PetResponse> updatePet(
             @PathVariable Long id,
             @Valid @RequestBody PetRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal UserPrincipal currentUser) {
-        PetResponse response = petService.updatePet(id, request, currentUser.getId());
-        return ResponseEntity.ok(response);
+        PetResponse response = petService.updatePet(id, request, currentUser.getId(), parseIfMatch(id, ifMatch));
+        return ResponseEntity.ok().eTag(petEtag(response.getId(), response.getVersion())).body(response);
     }
 
     @DeleteMapping("/{id}")
@@ -74,4 +203,51 @@ public class PetController {
         String message = petService.deletePet(id, currentUser.getId());
         return ResponseEntity.ok(message);
     }
+
+    private String resolveImportFormat(String format, MultipartFile file) {
+        if (format != null && !format.isBlank()) {
+            return format.trim().toLowerCase();
+        }
+        String filename = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase() : "";
+        if (filename.endsWith(".ndjson") || filename.endsWith(".jsonl")) {
+            return PetImportService.FORMAT_NDJSON;
+        }
+        if (filename.endsWith(".csv")) {
+            return PetImportService.FORMAT_CSV;
+        }
+        String contentType = file.getContentType() != null ? file.getContentType() : "";
+        return contentType.contains("ndjson") ? PetImportService.FORMAT_NDJSON : PetImportService.FORMAT_CSV;
+    }
+
+    private String petEtag(Long id, Long version) {
+        return "\"pet-" + id + "-" + version + "\"";
+    }
+
+    // A listing's representation is fully determined by which pets it holds and their versions.
+    // Weak, because the same listing is also served gzip-encoded; Tomcat will not compress a
+    // response carrying a strong ETag.
+    private String listingEtag(List<PetResponse> pets, String nextCursor) {
+        StringBuilder key = new StringBuilder();
+        for (PetResponse pet : pets) {
+            key.append(pet.getId()).append(':').append(pet.getVersion()).append(',');
+        }
+        key.append(nextCursor);
+        return "W/\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private Long parseIfMatch(Long petId, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        String prefix = "\"pet-" + petId + "-";
+        if (tag.startsWith(prefix) && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(prefix.length(), tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // Falls through to the precondition failure below.
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Pet was modified by someone else");
+    }
 }
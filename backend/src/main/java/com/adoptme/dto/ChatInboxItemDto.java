@@ -14,4 +14,5 @@ public class ChatInboxItemDto {
     private String otherUserName;
     private String lastMessage;
     private LocalDateTime lastMessageAt;
+    private Integer unreadCount;
 }
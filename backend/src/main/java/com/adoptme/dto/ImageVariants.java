@@ -0,0 +1,12 @@
+package com.adoptme.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ImageVariants {
+    private String thumb;
+    private String card;
+    private String full;
+}
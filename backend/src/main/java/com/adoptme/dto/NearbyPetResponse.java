@@ -0,0 +1,11 @@
+package com.adoptme.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class NearbyPetResponse {
+    private PetResponse pet;
+    private double distanceKm;
+}
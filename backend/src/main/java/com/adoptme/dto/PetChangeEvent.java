@@ -0,0 +1,22 @@
+package com.adoptme.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+public class PetChangeEvent {
+    private Long petId;
+    private Action action;
+    private Set<String> changedFields;
+    private String type;
+    private String previousType;
+    private String location;
+    private String adoptionStatus;
+    private Long version;
+
+    public enum Action {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,29 @@
+package com.adoptme.dto;
+
+import com.adoptme.entity.Pet;
+import com.adoptme.entity.User;
+import lombok.Data;
+
+// Optional listing predicates bound from query parameters; every non-null field is ANDed into one query.
+@Data
+public class PetFilter {
+    private String location;
+    private String type;
+    private Pet.AdoptionStatus adoptionStatus;
+    private Boolean stray;
+    private String vaccinationStatus;
+    private Integer minAge;
+    private Integer maxAge;
+    private User.UserRole listerRole;
+    private Sort sort;
+
+    public Sort resolvedSort() {
+        return sort != null ? sort : Sort.RECENT;
+    }
+
+    public enum Sort {
+        RECENT,
+        AGE_ASC,
+        AGE_DESC
+    }
+}
@@ -0,0 +1,23 @@
+package com.adoptme.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PetImportResponse {
+    private int imported;
+    private int failed;
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String message;
+    }
+}
@@ -24,6 +24,10 @@ public class PetRequest {
 
     private String locationLink;
 
+    private Double latitude;
+
+    private Double longitude;
+
     private String vaccinationStatus;
 
     private Boolean stray;
@@ -97,6 +101,22 @@ public class PetRequest {
         this.locationLink = locationLink;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public String getVaccinationStatus() {
         return vaccinationStatus;
     }
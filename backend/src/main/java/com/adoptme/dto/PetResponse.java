@@ -17,12 +17,16 @@ public class PetResponse {
     private String location;
     private String landmark;
     private String locationLink;
+    private Double latitude;
+    private Double longitude;
     private String vaccinationStatus;
     private Boolean stray;
     private String adoptionStatus;
     private List<String> imageUrls;
+    private List<ImageVariants> images;
     private Long listedById;
     private String listedByName;
     private String listedByRole;
     private LocalDateTime createdAt;
+    private Long version;
 }
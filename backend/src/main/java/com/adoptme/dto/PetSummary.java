@@ -0,0 +1,18 @@
+package com.adoptme.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class PetSummary {
+    private Long id;
+    private String name;
+    private String type;
+    private Integer age;
+    private String location;
+    private String adoptionStatus;
+    private String thumbnailUrl;
+    private LocalDateTime createdAt;
+}
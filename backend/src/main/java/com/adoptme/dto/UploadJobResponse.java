@@ -0,0 +1,16 @@
+package com.adoptme.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class UploadJobResponse {
+    private String id;
+    private String status;
+    private String imageUrl;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
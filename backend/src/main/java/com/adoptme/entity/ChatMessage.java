@@ -25,9 +25,19 @@ public class ChatMessage {
     @Column(nullable = false)
     private LocalDateTime timestamp;
     
+    // Both directions of a pair share one key ("min_max" user ids), so a conversation is a single
+    // index range on (conversation_key, timestamp) instead of an OR over sender/receiver.
+    @Column(name = "conversation_key", nullable = false, length = 41)
+    private String conversationKey;
+    
     @PrePersist
     protected void onCreate() {
         timestamp = LocalDateTime.now();
+        conversationKey = conversationKey(sender.getId(), receiver.getId());
+    }
+    
+    public static String conversationKey(Long user1, Long user2) {
+        return Math.min(user1, user2) + "_" + Math.max(user1, user2);
     }
     
     public ChatMessage() {
@@ -72,4 +82,12 @@ public class ChatMessage {
     public void setTimestamp(LocalDateTime timestamp) {
         this.timestamp = timestamp;
     }
+    
+    public String getConversationKey() {
+        return conversationKey;
+    }
+    
+    public void setConversationKey(String conversationKey) {
+        this.conversationKey = conversationKey;
+    }
 }
\ No newline at end of file
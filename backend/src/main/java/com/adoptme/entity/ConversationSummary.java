@@ -0,0 +1,130 @@
+package com.adoptme.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// One row per (owner, peer) conversation, maintained by ChatService.saveMessage so the inbox
+// never scans chat_messages.
+@Entity
+@Table(name = "conversation_summaries")
+@IdClass(ConversationSummary.Key.class)
+public class ConversationSummary {
+    @Id
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Id
+    @Column(name = "peer_id")
+    private Long peerId;
+
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_message", nullable = false, length = 2000)
+    private String lastMessage;
+
+    @Column(name = "last_message_at", nullable = false)
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "unread_count", nullable = false)
+    private Integer unreadCount;
+
+    // Owner's read cursor: the newest message from the peer that the owner has seen.
+    @Column(name = "last_read_message_id")
+    private Long lastReadMessageId;
+
+    public ConversationSummary() {
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public Long getPeerId() {
+        return peerId;
+    }
+
+    public void setPeerId(Long peerId) {
+        this.peerId = peerId;
+    }
+
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public void setLastMessageId(Long lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+
+    public String getLastMessage() {
+        return lastMessage;
+    }
+
+    public void setLastMessage(String lastMessage) {
+        this.lastMessage = lastMessage;
+    }
+
+    public LocalDateTime getLastMessageAt() {
+        return lastMessageAt;
+    }
+
+    public void setLastMessageAt(LocalDateTime lastMessageAt) {
+        this.lastMessageAt = lastMessageAt;
+    }
+
+    public Integer getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(Integer unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+
+    public Long getLastReadMessageId() {
+        return lastReadMessageId;
+    }
+
+    public void setLastReadMessageId(Long lastReadMessageId) {
+        this.lastReadMessageId = lastReadMessageId;
+    }
+
+    public static class Key implements Serializable {
+        private Long ownerId;
+        private Long peerId;
+
+        public Key() {
+        }
+
+        public Key(Long ownerId, Long peerId) {
+            this.ownerId = ownerId;
+            this.peerId = peerId;
+        }
+
+        public Long getOwnerId() {
+            return ownerId;
+        }
+
+        public Long getPeerId() {
+            return peerId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(ownerId, key.ownerId) && Objects.equals(peerId, key.peerId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ownerId, peerId);
+        }
+    }
+}
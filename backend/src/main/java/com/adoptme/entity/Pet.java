@@ -8,8 +8,10 @@ import java.util.List;
 @Entity
 @Table(name = "pets")
 public class Pet {
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts (bulk import).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pets_seq")
+    @SequenceGenerator(name = "pets_seq", sequenceName = "pets_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -33,6 +35,17 @@ public class Pet {
     @Column(length = 1000)
     private String locationLink;
 
+    private Double latitude;
+
+    private Double longitude;
+
+    @Column(length = 12)
+    private String geohash;
+
+    // Set once the map link has been parsed, whether or not it held coordinates. Null on rows from
+    // before coordinates were stored until PetCoordinateBackfill has looked at them.
+    private Boolean locationLinkParsed;
+
     private String vaccinationStatus;
 
     private Boolean stray;
@@ -43,6 +56,7 @@ public class Pet {
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "pet_images", joinColumns = @JoinColumn(name = "pet_id"))
     @Column(name = "image_url")
+    @OrderColumn(name = "position")
     private List<String> imageUrls = new ArrayList<>();
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -51,6 +65,9 @@ public class Pet {
 
     private LocalDateTime createdAt;
 
+    @Version
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -143,6 +160,38 @@ public class Pet {
         this.locationLink = locationLink;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public String getGeohash() {
+        return geohash;
+    }
+
+    public void setGeohash(String geohash) {
+        this.geohash = geohash;
+    }
+
+    public Boolean getLocationLinkParsed() {
+        return locationLinkParsed;
+    }
+
+    public void setLocationLinkParsed(Boolean locationLinkParsed) {
+        this.locationLinkParsed = locationLinkParsed;
+    }
+
     public String getVaccinationStatus() {
         return vaccinationStatus;
     }
@@ -190,4 +239,12 @@ public class Pet {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,88 @@
+package com.adoptme.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+@Entity
+@Table(name = "pet_facet_counts")
+@IdClass(PetFacetCount.Key.class)
+public class PetFacetCount {
+    @Id
+    @Column(length = 32)
+    private String facet;
+
+    @Id
+    @Column(name = "facet_value")
+    private String value;
+
+    @Column(nullable = false)
+    private Long petCount;
+
+    public PetFacetCount() {
+    }
+
+    public PetFacetCount(String facet, String value, Long petCount) {
+        this.facet = facet;
+        this.value = value;
+        this.petCount = petCount;
+    }
+
+    public String getFacet() {
+        return facet;
+    }
+
+    public void setFacet(String facet) {
+        this.facet = facet;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public Long getPetCount() {
+        return petCount;
+    }
+
+    public void setPetCount(Long petCount) {
+        this.petCount = petCount;
+    }
+
+    public static class Key implements Serializable {
+        private String facet;
+        private String value;
+
+        public Key() {
+        }
+
+        public Key(String facet, String value) {
+            this.facet = facet;
+            this.value = value;
+        }
+
+        public String getFacet() {
+            return facet;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(facet, key.facet) && Objects.equals(value, key.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(facet, value);
+        }
+    }
+}
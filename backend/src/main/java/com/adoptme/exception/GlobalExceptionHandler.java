@@ -2,10 +2,12 @@ package com.adoptme.exception;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
-import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -19,12 +21,30 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(error);
     }
     
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String, String>> handleValidationException(MethodArgumentNotValidException ex) {
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, String>> handleResponseStatusException(ResponseStatusException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getReason());
+        return ResponseEntity.status(ex.getStatusCode()).body(error);
+    }
+    
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "This record was modified concurrently. Reload and try again.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+    
+    // Also covers query-parameter binding failures (e.g. an unknown enum value in a listing filter).
+    @ExceptionHandler(BindException.class)
+    public ResponseEntity<Map<String, String>> handleValidationException(BindException ex) {
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach(error -> {
-            String fieldName = ((FieldError) error).getField();
-            String errorMessage = error.getDefaultMessage();
+            FieldError fieldError = (FieldError) error;
+            String fieldName = fieldError.getField();
+            String errorMessage = fieldError.isBindingFailure()
+                    ? "Invalid value: " + fieldError.getRejectedValue()
+                    : error.getDefaultMessage();
             errors.put(fieldName, errorMessage);
         });
         return ResponseEntity.badRequest().body(errors);
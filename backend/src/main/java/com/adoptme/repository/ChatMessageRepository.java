@@ -5,18 +5,44 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
-    @Query("SELECT m FROM ChatMessage m WHERE " +
-           "(m.sender.id = :user1 AND m.receiver.id = :user2) OR " +
-           "(m.sender.id = :user2 AND m.receiver.id = :user1) " +
-           "ORDER BY m.timestamp ASC")
-    List<ChatMessage> findConversation(@Param("user1") Long user1, @Param("user2") Long user2);
+    @Query("SELECT m FROM ChatMessage m WHERE m.conversationKey = :conversationKey " +
+           "ORDER BY m.timestamp ASC, m.id ASC")
+    List<ChatMessage> findConversation(@Param("conversationKey") String conversationKey);
 
-    @Query("SELECT m FROM ChatMessage m WHERE " +
-           "(m.sender.id = :userId OR m.receiver.id = :userId) " +
-           "ORDER BY m.timestamp DESC")
-    List<ChatMessage> findMessagesForUserOrderByTimestampDesc(@Param("userId") Long userId);
+    @Query("SELECT m.timestamp FROM ChatMessage m WHERE m.id = :id AND m.conversationKey = :conversationKey")
+    Optional<LocalDateTime> findTimestamp(@Param("id") Long id, @Param("conversationKey") String conversationKey);
+
+    // Keyset pages of a conversation, ordered by (timestamp, id). Each is one range scan on
+    // (conversation_key, timestamp, id) reading only limit rows. The plain timestamp bound next to
+    // the row comparison is redundant, but it is what lets a partitioned table prune the months
+    // on the far side of the cursor.
+    @Query(value = "SELECT * FROM chat_messages WHERE conversation_key = :conversationKey " +
+           "ORDER BY timestamp DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<ChatMessage> findConversationLatest(
+            @Param("conversationKey") String conversationKey,
+            @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM chat_messages WHERE conversation_key = :conversationKey " +
+           "AND timestamp <= :timestamp AND (timestamp, id) < (:timestamp, :id) " +
+           "ORDER BY timestamp DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<ChatMessage> findConversationBefore(
+            @Param("conversationKey") String conversationKey,
+            @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") Long id,
+            @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM chat_messages WHERE conversation_key = :conversationKey " +
+           "AND timestamp >= :timestamp AND (timestamp, id) > (:timestamp, :id) " +
+           "ORDER BY timestamp ASC, id ASC LIMIT :limit", nativeQuery = true)
+    List<ChatMessage> findConversationAfter(
+            @Param("conversationKey") String conversationKey,
+            @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") Long id,
+            @Param("limit") int limit);
 }
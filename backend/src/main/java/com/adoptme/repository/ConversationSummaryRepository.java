@@ -0,0 +1,46 @@
+package com.adoptme.repository;
+
+import com.adoptme.dto.ChatInboxItemDto;
+import com.adoptme.entity.ConversationSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, ConversationSummary.Key> {
+    // Messages committing out of order must not move the summary back to an older message,
+    // but the unread delta always applies.
+    @Modifying
+    @Query(value = "INSERT INTO conversation_summaries " +
+            "(owner_id, peer_id, last_message_id, last_message, last_message_at, unread_count) " +
+            "VALUES (:ownerId, :peerId, :messageId, :content, :sentAt, :unreadDelta) " +
+            "ON CONFLICT (owner_id, peer_id) DO UPDATE SET " +
+            "last_message = CASE WHEN EXCLUDED.last_message_id > conversation_summaries.last_message_id " +
+            "THEN EXCLUDED.last_message ELSE conversation_summaries.last_message END, " +
+            "last_message_at = CASE WHEN EXCLUDED.last_message_id > conversation_summaries.last_message_id " +
+            "THEN EXCLUDED.last_message_at ELSE conversation_summaries.last_message_at END, " +
+            "last_message_id = GREATEST(EXCLUDED.last_message_id, conversation_summaries.last_message_id), " +
+            "unread_count = conversation_summaries.unread_count + EXCLUDED.unread_count",
+            nativeQuery = true)
+    void recordMessage(
+            @Param("ownerId") Long ownerId,
+            @Param("peerId") Long peerId,
+            @Param("messageId") Long messageId,
+            @Param("content") String content,
+            @Param("sentAt") LocalDateTime sentAt,
+            @Param("unreadDelta") int unreadDelta);
+
+    @Modifying
+    @Query("UPDATE ConversationSummary s SET s.unreadCount = 0, s.lastReadMessageId = s.lastMessageId " +
+            "WHERE s.ownerId = :ownerId AND s.peerId = :peerId")
+    int markRead(@Param("ownerId") Long ownerId, @Param("peerId") Long peerId);
+
+    @Query("SELECT new com.adoptme.dto.ChatInboxItemDto(s.peerId, u.name, s.lastMessage, s.lastMessageAt, s.unreadCount) " +
+            "FROM ConversationSummary s JOIN User u ON u.id = s.peerId " +
+            "WHERE s.ownerId = :ownerId ORDER BY s.lastMessageAt DESC")
+    List<ChatInboxItemDto> findInbox(@Param("ownerId") Long ownerId);
+}
@@ -0,0 +1,78 @@
+package com.adoptme.repository;
+
+import com.adoptme.dto.PetFilter;
+import com.adoptme.dto.PetResponse;
+import com.adoptme.exception.CustomException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Seek position in a sorted pet listing: the sort key of the last row plus its id as tie-breaker.
+// Clients only see the encoded token, which also records the sort it was issued for.
+public class PetCursor {
+
+    private final PetFilter.Sort sort;
+    private final LocalDateTime createdAt;
+    private final Integer age;
+    private final Long id;
+
+    private PetCursor(PetFilter.Sort sort, LocalDateTime createdAt, Integer age, Long id) {
+        this.sort = sort;
+        this.createdAt = createdAt;
+        this.age = age;
+        this.id = id;
+    }
+
+    public static PetCursor after(PetResponse pet, PetFilter.Sort sort) {
+        return new PetCursor(sort, pet.getCreatedAt(), pet.getAge(), pet.getId());
+    }
+
+    public static PetCursor after(Long id, LocalDateTime createdAt, Integer age, PetFilter.Sort sort) {
+        return new PetCursor(sort, createdAt, age, id);
+    }
+
+    public static PetCursor decode(String token, PetFilter.Sort sort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || !parts[0].equals(sort.name())) {
+                throw new CustomException("Invalid cursor");
+            }
+            Long id = Long.valueOf(parts[2]);
+            if (sort == PetFilter.Sort.RECENT) {
+                return new PetCursor(sort, LocalDateTime.parse(parts[1]), null, id);
+            }
+            // Age sorts leave the key empty for a pet with unknown age.
+            Integer age = parts[1].isEmpty() ? null : Integer.valueOf(parts[1]);
+            return new PetCursor(sort, null, age, id);
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new CustomException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        Object key = sort == PetFilter.Sort.RECENT ? createdAt : age != null ? age : "";
+        String raw = sort.name() + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public PetFilter.Sort getSort() {
+        return sort;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
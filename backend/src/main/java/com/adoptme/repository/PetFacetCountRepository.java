@@ -0,0 +1,35 @@
+package com.adoptme.repository;
+
+import com.adoptme.entity.PetFacetCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface PetFacetCountRepository extends JpaRepository<PetFacetCount, PetFacetCount.Key> {
+    @Modifying
+    @Query(value = "INSERT INTO pet_facet_counts (facet, facet_value, pet_count) VALUES (:facet, :value, :delta) " +
+            "ON CONFLICT (facet, facet_value) DO UPDATE SET pet_count = pet_facet_counts.pet_count + :delta",
+            nativeQuery = true)
+    void increment(@Param("facet") String facet, @Param("value") String value, @Param("delta") long delta);
+
+    @Query("SELECT f FROM PetFacetCount f WHERE f.petCount > 0 ORDER BY f.facet, f.petCount DESC, f.value")
+    List<PetFacetCount> findNonEmpty();
+
+    // Recounts every facet from pets in one statement. Values are normalised the same way as
+    // PetFacetService.snapshot: trimmed and lower-cased text, blanks and nulls skipped.
+    @Modifying
+    @Query(value = "INSERT INTO pet_facet_counts (facet, facet_value, pet_count) " +
+            "SELECT 'type', lower(trim(type)), count(*) FROM pets WHERE trim(type) <> '' GROUP BY lower(trim(type)) " +
+            "UNION ALL " +
+            "SELECT 'adoptionStatus', adoption_status, count(*) FROM pets WHERE adoption_status IS NOT NULL GROUP BY adoption_status " +
+            "UNION ALL " +
+            "SELECT 'stray', CAST(stray AS varchar), count(*) FROM pets WHERE stray IS NOT NULL GROUP BY stray " +
+            "UNION ALL " +
+            "SELECT 'location', lower(trim(location)), count(*) FROM pets WHERE trim(location) <> '' GROUP BY lower(trim(location))",
+            nativeQuery = true)
+    int insertRecount();
+}
@@ -2,13 +2,53 @@ package com.adoptme.repository;
 
 import com.adoptme.entity.Pet;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface PetRepository extends JpaRepository<Pet, Long> {
-    List<Pet> findByListedById(Long userId);
-    List<Pet> findByLocationContainingIgnoreCase(String location);
-    List<Pet> findByTypeIgnoreCase(String type);
-    List<Pet> findByLocationContainingIgnoreCaseAndTypeIgnoreCase(String location, String type);
+public interface PetRepository extends JpaRepository<Pet, Long>, PetRepositoryCustom {
+    // Every predicate below is served by a GIN index from schema.sql (pg_trgm for location/landmark,
+    // tsvector for name/description); the expressions must stay identical to the indexed ones.
+    @Query(value = "SELECT p.id FROM pets p WHERE " +
+            "to_tsvector('english', coalesce(p.name, '') || ' ' || coalesce(p.description, '')) " +
+            "  @@ websearch_to_tsquery('english', :query) " +
+            "OR lower(p.location) % lower(:query) " +
+            "OR lower(p.location) LIKE '%' || lower(:query) || '%' " +
+            "OR lower(p.landmark) % lower(:query) " +
+            "OR lower(p.landmark) LIKE '%' || lower(:query) || '%' " +
+            "ORDER BY ts_rank(" +
+            "  to_tsvector('english', coalesce(p.name, '') || ' ' || coalesce(p.description, '')), " +
+            "  websearch_to_tsquery('english', :query)) " +
+            "+ greatest(" +
+            "  similarity(lower(p.location), lower(:query)), " +
+            "  similarity(coalesce(lower(p.landmark), ''), lower(:query))) DESC, " +
+            "p.id DESC " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<Long> searchIds(@Param("query") String query, @Param("limit") int limit);
+
+    @Query("SELECT p.version FROM Pet p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT p.id, p.locationLink FROM Pet p " +
+            "WHERE p.geohash IS NULL AND p.locationLink IS NOT NULL AND p.locationLinkParsed IS NULL")
+    List<Object[]> findUnlocatedPetLinks();
+
+    @Modifying
+    @Query("UPDATE Pet p SET p.locationLinkParsed = true WHERE p.id IN :ids")
+    int markLocationLinksParsed(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Pet p SET p.latitude = :latitude, p.longitude = :longitude, p.geohash = :geohash, " +
+            "p.locationLinkParsed = true WHERE p.id = :id")
+    int updateCoordinates(
+            @Param("id") Long id,
+            @Param("latitude") Double latitude,
+            @Param("longitude") Double longitude,
+            @Param("geohash") String geohash);
 }
@@ -0,0 +1,22 @@
+package com.adoptme.repository;
+
+import com.adoptme.dto.PetFilter;
+import com.adoptme.dto.PetResponse;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface PetRepositoryCustom {
+    List<PetResponse> findListingPage(PetFilter filter, PetCursor after, int limit);
+
+    // Sparse projection: each map holds the requested fields plus id and the sort key of the listing.
+    List<Map<String, Object>> findSparsePage(PetFilter filter, PetCursor after, int limit, Set<String> fields);
+
+    List<PetResponse> findListingsByLister(Long userId);
+
+    List<PetResponse> findListingsByIds(Collection<Long> ids);
+
+    // Returns {id, latitude, longitude} for every pet whose geohash starts with one of the prefixes.
+    List<Object[]> findCoordinatesInCells(Collection<String> geohashPrefixes, double latitude, double longitude, int limit);
+}
@@ -0,0 +1,417 @@
+package com.adoptme.repository;
+
+import com.adoptme.dto.PetFilter;
+import com.adoptme.dto.PetResponse;
+import com.adoptme.entity.Pet;
+import com.adoptme.entity.User;
+import com.adoptme.service.ImageStorage;
+import com.adoptme.util.ImageVariant;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.factory.annotation.Autowired;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Read path for listings: one tuple query for pet + lister columns, one batched query for image URLs.
+// Nothing here loads managed Pet entities, so there is no per-row lazy/eager fetch.
+public class PetRepositoryImpl implements PetRepositoryCustom {
+    private static final int IMAGE_BATCH_SIZE = 1000;
+    private static final Set<String> IMAGE_FIELDS = Set.of("imageUrls", "images", "thumbnailUrl");
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PetResponse> findListingPage(PetFilter filter, PetCursor after, int limit) {
+        return queryListings(filter, null, null, after, limit);
+    }
+
+    @Override
+    public List<PetResponse> findListingsByLister(Long userId) {
+        return queryListings(null, userId, null, null, 0);
+    }
+
+    @Override
+    public List<PetResponse> findListingsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return queryListings(null, null, ids, null, 0);
+    }
+
+    private List<PetResponse> queryListings(
+            PetFilter filter,
+            Long listerId,
+            Collection<Long> ids,
+            PetCursor after,
+            int limit) {
+        PetFilter.Sort sort = filter != null ? filter.resolvedSort() : PetFilter.Sort.RECENT;
+        List<Tuple> rows = inSortOrder(filter, sort, after, limit, (ageRows, seek, max) -> {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Tuple> query = cb.createTupleQuery();
+            Root<Pet> pet = query.from(Pet.class);
+            Join<Pet, User> lister = pet.join("listedBy");
+            query.multiselect(
+                            pet.get("id"),
+                            pet.get("name"),
+                            pet.get("age"),
+                            pet.get("type"),
+                            pet.get("description"),
+                            pet.get("contactNumber"),
+                            pet.get("location"),
+                            pet.get("landmark"),
+                            pet.get("locationLink"),
+                            pet.get("latitude"),
+                            pet.get("longitude"),
+                            pet.get("vaccinationStatus"),
+                            pet.get("stray"),
+                            pet.get("adoptionStatus"),
+                            lister.get("id"),
+                            lister.get("name"),
+                            lister.get("role"),
+                            pet.get("createdAt"),
+                            pet.get("version")
+                    )
+                    .where(listingPredicates(cb, pet, lister, filter, listerId, ids, ageRows, seek))
+                    .orderBy(orderFor(cb, pet, sort));
+
+            TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+            if (max > 0) {
+                typedQuery.setMaxResults(max);
+            }
+            return typedQuery.getResultList();
+        });
+
+        Map<Long, List<String>> imagesByPet = findImageUrls(rows.stream()
+                .map(row -> row.get(0, Long.class))
+                .collect(Collectors.toList()));
+
+        return rows.stream()
+                .map(row -> toResponse(row, imagesByPet))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Map<String, Object>> findSparsePage(PetFilter filter, PetCursor after, int limit, Set<String> fields) {
+        PetFilter.Sort sort = filter.resolvedSort();
+
+        // Only the requested columns are selected, plus id and the sort key needed for the next cursor.
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add("id");
+        columns.add(sort == PetFilter.Sort.RECENT ? "createdAt" : "age");
+        for (String field : fields) {
+            if (!IMAGE_FIELDS.contains(field)) {
+                columns.add(field);
+            }
+        }
+        List<Tuple> rows = inSortOrder(filter, sort, after, limit, (ageRows, seek, max) -> {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Tuple> query = cb.createTupleQuery();
+            Root<Pet> pet = query.from(Pet.class);
+            Join<Pet, User> lister = pet.join("listedBy");
+            List<Selection<?>> selections = new ArrayList<>();
+            for (String column : columns) {
+                selections.add(columnPath(column, pet, lister).alias(column));
+            }
+            query.multiselect(selections)
+                    .where(listingPredicates(cb, pet, lister, filter, null, null, ageRows, seek))
+                    .orderBy(orderFor(cb, pet, sort));
+            return entityManager.createQuery(query)
+                    .setMaxResults(max)
+                    .getResultList();
+        });
+
+        Map<Long, List<String>> imagesByPet = new HashMap<>();
+        if (fields.stream().anyMatch(IMAGE_FIELDS::contains)) {
+            imagesByPet = findImageUrls(rows.stream()
+                    .map(row -> row.get("id", Long.class))
+                    .collect(Collectors.toList()));
+        }
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (Tuple row : rows) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            for (String column : columns) {
+                Object value = row.get(column);
+                item.put(column, value instanceof Enum<?> constant ? constant.name() : value);
+            }
+            List<String> images = imagesByPet.getOrDefault(row.get("id", Long.class), new ArrayList<>());
+            if (fields.contains("imageUrls")) {
+                item.put("imageUrls", images);
+            }
+            if (fields.contains("images")) {
+                item.put("images", imageStorage.variants(images));
+            }
+            if (fields.contains("thumbnailUrl")) {
+                item.put("thumbnailUrl", images.isEmpty() ? null : imageStorage.variantUrl(images.get(0), ImageVariant.THUMB));
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    // Age sorts list pets with a known age first and the others after them (NULLS LAST), ordered by
+    // id in the same direction. Each part is read as its own index range ((age, id) for known ages)
+    // instead of one seek ORed with IS NULL, so a page that crosses over takes a second query.
+    private List<Tuple> inSortOrder(PetFilter filter, PetFilter.Sort sort, PetCursor after, int limit, RowQuery query) {
+        if (sort == PetFilter.Sort.RECENT) {
+            return query.rows(AgeRows.ALL, after, limit);
+        }
+        boolean afterUnknownAge = after != null && after.getAge() == null;
+        List<Tuple> rows = new ArrayList<>();
+        if (!afterUnknownAge) {
+            rows.addAll(query.rows(AgeRows.KNOWN, after, limit));
+        }
+        // An age bound in the filter already excludes unknown ages.
+        boolean ageBounded = filter.getMinAge() != null || filter.getMaxAge() != null;
+        if (rows.size() < limit && !ageBounded) {
+            rows.addAll(query.rows(AgeRows.UNKNOWN, afterUnknownAge ? after : null, limit - rows.size()));
+        }
+        return rows;
+    }
+
+    private enum AgeRows {
+        ALL,
+        KNOWN,
+        UNKNOWN
+    }
+
+    private interface RowQuery {
+        List<Tuple> rows(AgeRows ageRows, PetCursor seek, int limit);
+    }
+
+    private Path<?> columnPath(String field, Root<Pet> pet, Join<Pet, User> lister) {
+        switch (field) {
+            case "listedById":
+                return lister.get("id");
+            case "listedByName":
+                return lister.get("name");
+            case "listedByRole":
+                return lister.get("role");
+            default:
+                return pet.get(field);
+        }
+    }
+
+    private Predicate[] listingPredicates(
+            CriteriaBuilder cb,
+            Root<Pet> pet,
+            Join<Pet, User> lister,
+            PetFilter filter,
+            Long listerId,
+            Collection<Long> ids,
+            AgeRows ageRows,
+            PetCursor after) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter != null) {
+            addFilterPredicates(predicates, cb, pet, lister, filter);
+        }
+        if (listerId != null) {
+            predicates.add(cb.equal(lister.get("id"), listerId));
+        }
+        if (ids != null) {
+            predicates.add(pet.get("id").in(ids));
+        }
+        if (ageRows == AgeRows.KNOWN) {
+            predicates.add(cb.isNotNull(pet.get("age")));
+        } else if (ageRows == AgeRows.UNKNOWN) {
+            predicates.add(cb.isNull(pet.get("age")));
+        }
+        if (after != null) {
+            predicates.add(seekPredicate(cb, pet, after));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private void addFilterPredicates(
+            List<Predicate> predicates,
+            CriteriaBuilder cb,
+            Root<Pet> pet,
+            Join<Pet, User> lister,
+            PetFilter filter) {
+        // Expressions mirror the indexes in schema.sql (lower(type), lower(location) trigram, ...).
+        if (hasText(filter.getLocation())) {
+            predicates.add(cb.like(cb.lower(pet.get("location")), containsPattern(filter.getLocation().trim()), '\\'));
+        }
+        if (hasText(filter.getType())) {
+            predicates.add(cb.equal(cb.lower(pet.get("type")), filter.getType().trim().toLowerCase()));
+        }
+        if (filter.getAdoptionStatus() != null) {
+            predicates.add(cb.equal(pet.get("adoptionStatus"), filter.getAdoptionStatus()));
+        }
+        if (filter.getStray() != null) {
+            predicates.add(cb.equal(pet.get("stray"), filter.getStray()));
+        }
+        if (hasText(filter.getVaccinationStatus())) {
+            predicates.add(cb.equal(
+                    cb.lower(pet.get("vaccinationStatus")),
+                    filter.getVaccinationStatus().trim().toLowerCase()
+            ));
+        }
+        if (filter.getMinAge() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(pet.get("age"), filter.getMinAge()));
+        }
+        if (filter.getMaxAge() != null) {
+            predicates.add(cb.lessThanOrEqualTo(pet.get("age"), filter.getMaxAge()));
+        }
+        if (filter.getListerRole() != null) {
+            predicates.add(cb.equal(lister.get("role"), filter.getListerRole()));
+        }
+    }
+
+    // Keyset seek past (key, id) in the listing's sort direction. The OR expansion alone cannot
+    // bound an index scan, so each branch also carries the redundant but sargable bound on the
+    // leading key (e.g. created_at <= cursor); the scan then starts at the cursor on any page.
+    // A cursor on a pet with unknown age only seeks on id, within the unknown-age rows.
+    private Predicate seekPredicate(CriteriaBuilder cb, Root<Pet> pet, PetCursor after) {
+        if (after.getSort() != PetFilter.Sort.RECENT && after.getAge() == null) {
+            return after.getSort() == PetFilter.Sort.AGE_ASC
+                    ? cb.greaterThan(pet.get("id"), after.getId())
+                    : cb.lessThan(pet.get("id"), after.getId());
+        }
+        switch (after.getSort()) {
+            case AGE_ASC:
+                return cb.and(
+                        cb.greaterThanOrEqualTo(pet.get("age"), after.getAge()),
+                        cb.or(
+                                cb.greaterThan(pet.get("age"), after.getAge()),
+                                cb.and(cb.equal(pet.get("age"), after.getAge()), cb.greaterThan(pet.get("id"), after.getId()))
+                        )
+                );
+            case AGE_DESC:
+                return cb.and(
+                        cb.lessThanOrEqualTo(pet.get("age"), after.getAge()),
+                        cb.or(
+                                cb.lessThan(pet.get("age"), after.getAge()),
+                                cb.and(cb.equal(pet.get("age"), after.getAge()), cb.lessThan(pet.get("id"), after.getId()))
+                        )
+                );
+            default:
+                return cb.and(
+                        cb.lessThanOrEqualTo(pet.get("createdAt"), after.getCreatedAt()),
+                        cb.or(
+                                cb.lessThan(pet.get("createdAt"), after.getCreatedAt()),
+                                cb.and(
+                                        cb.equal(pet.get("createdAt"), after.getCreatedAt()),
+                                        cb.lessThan(pet.get("id"), after.getId())
+                                )
+                        )
+                );
+        }
+    }
+
+    private List<Order> orderFor(CriteriaBuilder cb, Root<Pet> pet, PetFilter.Sort sort) {
+        switch (sort) {
+            case AGE_ASC:
+                return List.of(cb.asc(pet.get("age")), cb.asc(pet.get("id")));
+            case AGE_DESC:
+                return List.of(cb.desc(pet.get("age")), cb.desc(pet.get("id")));
+            default:
+                return List.of(cb.desc(pet.get("createdAt")), cb.desc(pet.get("id")));
+        }
+    }
+
+    private boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private Map<Long, List<String>> findImageUrls(List<Long> petIds) {
+        Map<Long, List<String>> imagesByPet = new HashMap<>();
+        for (int from = 0; from < petIds.size(); from += IMAGE_BATCH_SIZE) {
+            List<Long> batch = petIds.subList(from, Math.min(from + IMAGE_BATCH_SIZE, petIds.size()));
+            List<Object[]> rows = entityManager.createQuery(
+                            "SELECT p.id, image FROM Pet p JOIN p.imageUrls image WHERE p.id IN :ids ORDER BY p.id, index(image)",
+                            Object[].class)
+                    .setParameter("ids", batch)
+                    .getResultList();
+            for (Object[] row : rows) {
+                imagesByPet.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+        return imagesByPet;
+    }
+
+    private PetResponse toResponse(Tuple row, Map<Long, List<String>> imagesByPet) {
+        Long id = row.get(0, Long.class);
+        Pet.AdoptionStatus adoptionStatus = row.get(13, Pet.AdoptionStatus.class);
+        List<String> imageUrls = imagesByPet.getOrDefault(id, new ArrayList<>());
+        return new PetResponse(
+                id,
+                row.get(1, String.class),
+                row.get(2, Integer.class),
+                row.get(3, String.class),
+                row.get(4, String.class),
+                row.get(5, String.class),
+                row.get(6, String.class),
+                row.get(7, String.class),
+                row.get(8, String.class),
+                row.get(9, Double.class),
+                row.get(10, Double.class),
+                row.get(11, String.class),
+                row.get(12, Boolean.class),
+                adoptionStatus != null ? adoptionStatus.name() : null,
+                imageUrls,
+                imageStorage.variants(imageUrls),
+                row.get(14, Long.class),
+                row.get(15, String.class),
+                row.get(16, User.UserRole.class).name(),
+                row.get(17, LocalDateTime.class),
+                row.get(18, Long.class)
+        );
+    }
+
+    @Override
+    public List<Object[]> findCoordinatesInCells(Collection<String> geohashPrefixes, double latitude, double longitude, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Pet> pet = query.from(Pet.class);
+
+        // Prefix LIKEs become range scans on idx_pets_geohash (text_pattern_ops).
+        Predicate[] cells = geohashPrefixes.stream()
+                .map(prefix -> cb.like(pet.get("geohash"), prefix + "%"))
+                .toArray(Predicate[]::new);
+
+        // Coarse cells (wide radii, high latitudes) can hold many pets, so only the nearest rows by
+        // equirectangular distance are returned; the caller computes exact distances on those.
+        // Pets across the antimeridian rank as far away, which only matters when the cap is reached.
+        double lngScale = Math.cos(Math.toRadians(latitude));
+        Expression<Double> dLat = cb.diff(pet.get("latitude"), latitude);
+        Expression<Double> dLng = cb.prod(cb.diff(pet.get("longitude"), longitude), lngScale);
+        query.multiselect(pet.get("id"), pet.get("latitude"), pet.get("longitude"))
+                .where(cb.or(cells))
+                .orderBy(cb.asc(cb.sum(cb.prod(dLat, dLat), cb.prod(dLng, dLng))));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private String containsPattern(String value) {
+        String escaped = value.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
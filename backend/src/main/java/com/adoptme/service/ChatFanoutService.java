@@ -0,0 +1,86 @@
+package com.adoptme.service;
+
+import com.adoptme.dto.ChatMessageDto;
+import com.adoptme.entity.ChatMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpSession;
+import org.springframework.messaging.simp.user.SimpSubscription;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+// Delivers a chat message to everyone in the conversation once per STOMP session. The DTO is
+// serialized a single time and the same bytes go to the conversation topic and to any participant
+// session that only listens on its /user/queue/messages. A session subscribed to the topic is not
+// sent the queue copy as well. Anonymous sessions are not in the user registry and can only be
+// reached through the topic. With the broker relay, sessions held by other nodes become visible
+// through the user registry broadcast, so a queue-only session on another node can miss messages
+// for the first few seconds after it subscribes.
+@Service
+public class ChatFanoutService {
+    private static final String USER_QUEUE = "/queue/messages";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private SimpUserRegistry userRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void broadcast(ChatMessageDto message) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(message);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize chat message " + message.getId(), ex);
+        }
+        String topic = "/topic/chat/" + ChatMessage.conversationKey(message.getSenderId(), message.getReceiverId());
+
+        messagingTemplate.send(topic, jsonMessage(body));
+        sendToQueueOnlySessions(message.getReceiverId(), topic, body);
+        // Echo to the sender as well so their other windows update instantly.
+        if (!message.getSenderId().equals(message.getReceiverId())) {
+            sendToQueueOnlySessions(message.getSenderId(), topic, body);
+        }
+    }
+
+    // Only the participant's own sessions are inspected, not every subscription in the registry.
+    // A subscription to /user/queue/messages is held by the broker as /queue/messages-user{sessionId};
+    // sending there directly reaches one session. A sessionId header on a /user destination would do
+    // the same with the simple broker, but the relay would try to forward it over that session's own
+    // broker connection, which only exists on the node holding the session.
+    private void sendToQueueOnlySessions(Long userId, String topic, byte[] body) {
+        SimpUser user = userRegistry.getUser(userId.toString());
+        if (user == null) {
+            return;
+        }
+        for (SimpSession session : user.getSessions()) {
+            boolean onTopic = false;
+            boolean onQueue = false;
+            for (SimpSubscription subscription : session.getSubscriptions()) {
+                onTopic |= topic.equals(subscription.getDestination());
+                onQueue |= ("/user" + USER_QUEUE).equals(subscription.getDestination());
+            }
+            if (onQueue && !onTopic) {
+                messagingTemplate.send(USER_QUEUE + "-user" + session.getId(), jsonMessage(body));
+            }
+        }
+    }
+
+    private Message<byte[]> jsonMessage(byte[] body) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,133 @@
+package com.adoptme.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// Keeps chat_messages range-partitioned by month (app.chat.partitioning.enabled=true, PostgreSQL only).
+// On first start the plain table is converted in one transaction; afterwards upcoming months are
+// created ahead of time and, with a retention set, old months are detached so they can be archived
+// or dropped without touching live data. There is no default partition: a row outside every range
+// fails to insert, so months-ahead must comfortably exceed the scheduler interval.
+// The conversion runs once every singleton (including the schema.sql initializer) is ready but
+// before the context starts the web server and STOMP broker, so no chat write can hit the table
+// while it is copied and swapped.
+@Component
+@ConditionalOnProperty(name = "app.chat.partitioning.enabled", havingValue = "true")
+public class ChatPartitionManager implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(ChatPartitionManager.class);
+
+    private static final String TABLE = "chat_messages";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.chat.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    // 0 keeps every month attached.
+    @Value("${app.chat.partitioning.retention-months:0}")
+    private int retentionMonths;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!isPartitioned()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> convertToPartitioned());
+        }
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${app.chat.partitioning.cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        if (retentionMonths > 0) {
+            detachPartitionsBefore(current.minusMonths(retentionMonths));
+        }
+    }
+
+    private boolean isPartitioned() {
+        String kind = jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)", String.class, TABLE);
+        return "p".equals(kind);
+    }
+
+    // Rows are copied with their ids; the id sequence is recreated after the old table (and the
+    // identity sequence it owns) is dropped, and continues from the highest id. Hibernate keeps
+    // treating the id as database-generated, so no entity change is needed. The primary key has to
+    // include the partition column.
+    private void convertToPartitioned() {
+        jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + TABLE + "_unpartitioned");
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + TABLE + "_unpartitioned INCLUDING DEFAULTS) " +
+                "PARTITION BY RANGE (timestamp)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD PRIMARY KEY (id, timestamp)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD FOREIGN KEY (sender_id) REFERENCES users (id)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD FOREIGN KEY (receiver_id) REFERENCES users (id)");
+
+        LocalDateTime oldest = jdbcTemplate.queryForObject(
+                "SELECT min(timestamp) FROM " + TABLE + "_unpartitioned", LocalDateTime.class);
+        YearMonth month = oldest == null ? YearMonth.now() : YearMonth.from(oldest);
+        for (YearMonth last = YearMonth.now().plusMonths(monthsAhead); !month.isAfter(last); month = month.plusMonths(1)) {
+            createPartition(month);
+        }
+
+        jdbcTemplate.execute("INSERT INTO " + TABLE + " SELECT * FROM " + TABLE + "_unpartitioned");
+        jdbcTemplate.execute("DROP TABLE " + TABLE + "_unpartitioned");
+
+        jdbcTemplate.execute("CREATE SEQUENCE " + TABLE + "_id_seq OWNED BY " + TABLE + ".id");
+        jdbcTemplate.execute("SELECT setval('" + TABLE + "_id_seq', (SELECT COALESCE(max(id), 0) + 1 FROM " + TABLE + "), false)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN id SET DEFAULT nextval('" + TABLE + "_id_seq')");
+
+        // Same indexes as schema.sql; on the parent they are created on every partition.
+        jdbcTemplate.execute("CREATE INDEX idx_chat_messages_conversation_ts ON " + TABLE + " (conversation_key, timestamp, id)");
+        jdbcTemplate.execute("CREATE INDEX idx_chat_messages_pair_id ON " + TABLE + " (sender_id, receiver_id, id)");
+        log.info("Converted {} to monthly partitions", TABLE);
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF " + TABLE +
+                " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    private void detachPartitionsBefore(YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass(?)", String.class, TABLE);
+        for (String partition : partitions) {
+            if (!partition.matches(PARTITION_PREFIX + "\\d{6}")) {
+                continue;
+            }
+            YearMonth month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+            if (month.isBefore(cutoff)) {
+                // The detached table keeps its rows and can be dumped or dropped at leisure.
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+                log.info("Detached chat partition {}", partition);
+            }
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+}
@@ -2,22 +2,27 @@ package com.adoptme.service;
 
 import com.adoptme.dto.ChatInboxItemDto;
 import com.adoptme.dto.ChatMessageDto;
+import com.adoptme.dto.CursorPage;
 import com.adoptme.entity.ChatMessage;
 import com.adoptme.entity.User;
 import com.adoptme.exception.CustomException;
 import com.adoptme.repository.ChatMessageRepository;
+import com.adoptme.repository.ConversationSummaryRepository;
 import com.adoptme.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class ChatService {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
     
     @Autowired
     private ChatMessageRepository chatMessageRepository;
@@ -25,6 +30,11 @@ public class ChatService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ConversationSummaryRepository conversationSummaryRepository;
+    
+    // The message and both participants' conversation summaries commit together.
+    @Transactional
     public ChatMessageDto saveMessage(Long senderId, Long receiverId, String content) {
         User sender = userRepository.findById(senderId)
                 .orElseThrow(() -> new CustomException("Sender not found"));
@@ -37,39 +47,72 @@ public class ChatService {
         message.setContent(content);
         
         ChatMessage savedMessage = chatMessageRepository.save(message);
+        conversationSummaryRepository.recordMessage(
+                senderId, receiverId, savedMessage.getId(), content, savedMessage.getTimestamp(), 0);
+        conversationSummaryRepository.recordMessage(
+                receiverId, senderId, savedMessage.getId(), content, savedMessage.getTimestamp(), 1);
         
         return convertToDto(savedMessage);
     }
     
     public List<ChatMessageDto> getConversation(Long user1Id, Long user2Id) {
-        return chatMessageRepository.findConversation(user1Id, user2Id).stream()
+        return chatMessageRepository.findConversation(ChatMessage.conversationKey(user1Id, user2Id)).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
-    public List<ChatInboxItemDto> getInbox(Long userId) {
-        List<ChatMessage> messages = chatMessageRepository.findMessagesForUserOrderByTimestampDesc(userId);
-        Map<Long, ChatInboxItemDto> latestByOtherUser = new LinkedHashMap<>();
+    // Newest page first: without a cursor this is the latest messages; "before" pages back through
+    // history and "after" fetches what arrived since. Items in a page are in chronological order
+    // and nextCursor is the id to pass as the same parameter for the following page.
+    public CursorPage<ChatMessageDto> getConversationPage(Long user1Id, Long user2Id, Long before, Long after, Integer limit) {
+        if (before != null && after != null) {
+            throw new CustomException("Use either before or after, not both");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new CustomException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query.
+        String conversationKey = ChatMessage.conversationKey(user1Id, user2Id);
+        Long cursor = after != null ? after : before;
+        List<ChatMessage> messages;
+        if (cursor == null) {
+            messages = chatMessageRepository.findConversationLatest(conversationKey, pageSize + 1);
+        } else {
+            LocalDateTime cursorTimestamp = chatMessageRepository.findTimestamp(cursor, conversationKey)
+                    .orElseThrow(() -> new CustomException("Unknown cursor: " + cursor));
+            messages = after != null
+                    ? chatMessageRepository.findConversationAfter(conversationKey, cursorTimestamp, cursor, pageSize + 1)
+                    : chatMessageRepository.findConversationBefore(conversationKey, cursorTimestamp, cursor, pageSize + 1);
+        }
+        boolean hasMore = messages.size() > pageSize;
+        if (hasMore) {
+            messages = messages.subList(0, pageSize);
+        }
 
-        for (ChatMessage message : messages) {
-            User otherUser = message.getSender().getId().equals(userId)
-                    ? message.getReceiver()
-                    : message.getSender();
+        List<ChatMessageDto> items = messages.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (after == null) {
+            Collections.reverse(items);
+        }
 
-            if (!latestByOtherUser.containsKey(otherUser.getId())) {
-                latestByOtherUser.put(
-                        otherUser.getId(),
-                        new ChatInboxItemDto(
-                                otherUser.getId(),
-                                otherUser.getName(),
-                                message.getContent(),
-                                message.getTimestamp()
-                        )
-                );
-            }
+        String nextCursor = null;
+        if (hasMore) {
+            ChatMessageDto edge = after != null ? items.get(items.size() - 1) : items.get(0);
+            nextCursor = edge.getId().toString();
         }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    public List<ChatInboxItemDto> getInbox(Long userId) {
+        return conversationSummaryRepository.findInbox(userId);
+    }
 
-        return new ArrayList<>(latestByOtherUser.values());
+    @Transactional
+    public void markConversationRead(Long userId, Long peerId) {
+        conversationSummaryRepository.markRead(userId, peerId);
     }
     
     private ChatMessageDto convertToDto(ChatMessage message) {
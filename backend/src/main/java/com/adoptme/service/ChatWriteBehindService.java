@@ -0,0 +1,322 @@
+package com.adoptme.service;
+
+import com.adoptme.dto.ChatMessageDto;
+import com.adoptme.entity.ChatMessage;
+import com.adoptme.entity.User;
+import com.adoptme.exception.CustomException;
+import com.adoptme.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Pipelined chat persistence (app.chat.write-behind.enabled=true). A message gets an id from a
+// pre-fetched block of the chat_messages sequence and is broadcast straight away; one writer thread
+// drains the queue and commits everything waiting as a single JDBC batch, then acks the senders on
+// /topic/chat/{key}/acks. A full queue holds the sending thread for up to offer-timeout-ms, which
+// slows the inbound STOMP channel down, and then rejects the message.
+// A batch that fails is written again one message at a time, each retried up to max-attempts
+// times, so one bad row does not lose the rest; only a message that still fails gets a FAILED ack.
+// Until its batch commits a broadcast message is not yet returned by the history endpoints.
+// Single node only: ids are handed out in blocks, so with several nodes a later message can carry a
+// lower id than an earlier one from another node, and the summaries and read cursors that take the
+// highest id as the newest message would go wrong. Starting with app.websocket.broker=relay (the
+// multi-node setup) fails.
+@Service
+@ConditionalOnProperty(name = "app.chat.write-behind.enabled", havingValue = "true")
+public class ChatWriteBehindService {
+    private static final Logger log = LoggerFactory.getLogger(ChatWriteBehindService.class);
+
+    private static final String INSERT_MESSAGE_SQL =
+            "INSERT INTO chat_messages (id, sender_id, receiver_id, content, timestamp, conversation_key) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Same guards as ConversationSummaryRepository.recordMessage.
+    private static final String RECORD_SUMMARY_SQL =
+            "INSERT INTO conversation_summaries " +
+            "(owner_id, peer_id, last_message_id, last_message, last_message_at, unread_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (owner_id, peer_id) DO UPDATE SET " +
+            "last_message = CASE WHEN EXCLUDED.last_message_id > conversation_summaries.last_message_id " +
+            "THEN EXCLUDED.last_message ELSE conversation_summaries.last_message END, " +
+            "last_message_at = CASE WHEN EXCLUDED.last_message_id > conversation_summaries.last_message_id " +
+            "THEN EXCLUDED.last_message_at ELSE conversation_summaries.last_message_at END, " +
+            "last_message_id = GREATEST(EXCLUDED.last_message_id, conversation_summaries.last_message_id), " +
+            "unread_count = conversation_summaries.unread_count + EXCLUDED.unread_count";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.chat.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.chat.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.chat.write-behind.id-block-size:100}")
+    private int idBlockSize;
+
+    @Value("${app.chat.write-behind.offer-timeout-ms:200}")
+    private long offerTimeoutMs;
+
+    @Value("${app.chat.write-behind.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.chat.write-behind.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    @Value("${app.chat.write-behind.name-cache-size:10000}")
+    private long nameCacheSize;
+
+    @Value("${app.chat.write-behind.name-cache-ttl:10m}")
+    private Duration nameCacheTtl;
+
+    @Value("${app.websocket.broker:simple}")
+    private String brokerMode;
+
+    private BlockingQueue<ChatMessageDto> queue;
+    private final Deque<Long> idBlock = new ArrayDeque<>();
+    private Thread writer;
+    private volatile boolean running = true;
+    private Cache<Long, String> userNames;
+    private Counter rejected;
+    private Timer batchLatency;
+
+    @PostConstruct
+    void start() {
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            throw new IllegalStateException(
+                    "app.chat.write-behind.enabled cannot be combined with app.websocket.broker=relay");
+        }
+        // Names only label the broadcast copy; a rename shows up once the entry expires.
+        userNames = Caffeine.newBuilder()
+                .maximumSize(nameCacheSize)
+                .expireAfterWrite(nameCacheTtl)
+                .build();
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("chat.write_behind.queued", queue, BlockingQueue::size)
+                .description("Chat messages broadcast but not yet committed")
+                .register(meterRegistry);
+        rejected = Counter.builder("chat.write_behind.rejected")
+                .description("Chat messages refused because the write-behind queue was full")
+                .register(meterRegistry);
+        batchLatency = Timer.builder("chat.write_behind.batch")
+                .description("Time to commit one group of chat messages")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        writer = new Thread(this::drain, "chat-write-behind");
+        writer.start();
+    }
+
+    // Returns the message as broadcast; it is durable once the sender sees it in a PERSISTED ack.
+    public ChatMessageDto submit(Long senderId, Long receiverId, String content) {
+        // Both users are looked up together, and only when one is not cached yet.
+        Map<Long, String> names = userNames.getAll(List.of(senderId, receiverId), ids ->
+                userRepository.findAllById(List.copyOf(ids)).stream().collect(Collectors.toMap(User::getId, User::getName)));
+        if (!names.containsKey(senderId)) {
+            throw new CustomException("Sender not found");
+        }
+        if (!names.containsKey(receiverId)) {
+            throw new CustomException("Receiver not found");
+        }
+
+        ChatMessageDto message = new ChatMessageDto(
+                nextId(), senderId, names.get(senderId), receiverId, names.get(receiverId), content, LocalDateTime.now());
+        boolean accepted;
+        try {
+            accepted = queue.offer(message, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            rejected.increment();
+            sendAck(message, "REJECTED", List.of());
+            throw new CustomException("Chat is busy, message not sent");
+        }
+        return message;
+    }
+
+    // Ids come from the table's own sequence, so they never collide with messages saved through
+    // ChatService; one round trip reserves a whole block.
+    private synchronized Long nextId() {
+        if (idBlock.isEmpty()) {
+            idBlock.addAll(jdbcTemplate.queryForList(
+                    "SELECT nextval(pg_get_serial_sequence('chat_messages', 'id')) FROM generate_series(1, ?)",
+                    Long.class, idBlockSize));
+        }
+        return idBlock.poll();
+    }
+
+    private void drain() {
+        List<ChatMessageDto> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ChatMessageDto first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException ex) {
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<ChatMessageDto> batch) {
+        long started = System.nanoTime();
+        List<ChatMessageDto> failed = List.of();
+        try {
+            persist(batch);
+        } catch (RuntimeException ex) {
+            log.warn("Batch of {} chat messages failed, writing them one at a time", batch.size(), ex);
+            failed = persistEach(batch);
+        }
+        batchLatency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        List<ChatMessageDto> persisted = new ArrayList<>(batch);
+        persisted.removeAll(failed);
+        sendAcks(persisted, "PERSISTED");
+        sendAcks(failed, "FAILED");
+    }
+
+    private void persist(List<ChatMessageDto> messages) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            List<Object[]> rows = new ArrayList<>(messages.size());
+            for (ChatMessageDto message : messages) {
+                rows.add(new Object[] {
+                        message.getId(), message.getSenderId(), message.getReceiverId(), message.getContent(),
+                        message.getTimestamp(), ChatMessage.conversationKey(message.getSenderId(), message.getReceiverId())
+                });
+            }
+            jdbcTemplate.batchUpdate(INSERT_MESSAGE_SQL, rows);
+            jdbcTemplate.batchUpdate(RECORD_SUMMARY_SQL, summaryRows(messages));
+        });
+    }
+
+    // Each message in its own transaction; returns the ones still failing after maxAttempts.
+    private List<ChatMessageDto> persistEach(List<ChatMessageDto> batch) {
+        List<ChatMessageDto> failed = new ArrayList<>();
+        for (ChatMessageDto message : batch) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    persist(List.of(message));
+                    break;
+                } catch (RuntimeException ex) {
+                    if (attempt >= maxAttempts) {
+                        log.error("Chat message {} could not be stored after {} attempts", message.getId(), attempt, ex);
+                        failed.add(message);
+                        break;
+                    }
+                    pause(retryBackoffMs * attempt);
+                }
+            }
+        }
+        return failed;
+    }
+
+    // Keeps the interrupt flag so drain() stops taking new work once this batch is done.
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // One ack per sender and conversation, listing the ids it covers.
+    private void sendAcks(List<ChatMessageDto> messages, String status) {
+        Map<String, List<ChatMessageDto>> bySender = new LinkedHashMap<>();
+        for (ChatMessageDto message : messages) {
+            bySender.computeIfAbsent(message.getSenderId() + ">" + message.getReceiverId(), k -> new ArrayList<>())
+                    .add(message);
+        }
+        for (List<ChatMessageDto> group : bySender.values()) {
+            sendAck(group.get(0), status, group.stream().map(ChatMessageDto::getId).toList());
+        }
+    }
+
+    // One upsert per (owner, peer) per batch: the newest message wins and the receiver's unread
+    // delta is the number of messages it got in the batch.
+    private List<Object[]> summaryRows(List<ChatMessageDto> batch) {
+        Map<String, Object[]> rows = new LinkedHashMap<>();
+        for (ChatMessageDto message : batch) {
+            addSummary(rows, message.getSenderId(), message.getReceiverId(), message, 0);
+            addSummary(rows, message.getReceiverId(), message.getSenderId(), message, 1);
+        }
+        return new ArrayList<>(rows.values());
+    }
+
+    private void addSummary(Map<String, Object[]> rows, Long ownerId, Long peerId, ChatMessageDto message, int unread) {
+        Object[] row = rows.get(ownerId + "_" + peerId);
+        if (row == null) {
+            rows.put(ownerId + "_" + peerId, new Object[] {
+                    ownerId, peerId, message.getId(), message.getContent(), message.getTimestamp(), unread
+            });
+            return;
+        }
+        if (message.getId() > (Long) row[2]) {
+            row[2] = message.getId();
+            row[3] = message.getContent();
+            row[4] = message.getTimestamp();
+        }
+        row[5] = (Integer) row[5] + unread;
+    }
+
+    private void sendAck(ChatMessageDto message, String status, List<Long> messageIds) {
+        messagingTemplate.convertAndSend(
+                "/topic/chat/" + ChatMessage.conversationKey(message.getSenderId(), message.getReceiverId()) + "/acks",
+                Map.of("senderId", message.getSenderId(), "status", status, "messageIds", messageIds));
+    }
+
+    // Commits whatever is still queued before the datasource goes away.
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+}
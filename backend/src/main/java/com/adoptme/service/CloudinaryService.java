@@ -1,33 +1,78 @@
 package com.adoptme.service;
 
 import com.cloudinary.Cloudinary;
+import com.cloudinary.api.exceptions.NotFound;
 import com.cloudinary.utils.ObjectUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Map;
 
 @Service
-public class CloudinaryService {
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryService implements ImageStorage {
+    private static final Logger log = LoggerFactory.getLogger(CloudinaryService.class);
+    private static final String FOLDER = "adoptme/pets";
     
     private final Cloudinary cloudinary;
+
+    // Content hash -> URL of assets known to be stored. Assets are never overwritten, so an entry
+    // stays valid for as long as the asset exists.
+    private final Cache<String, String> knownAssets;
     
     public CloudinaryService(
             @Value("${cloudinary.cloud.name}") String cloudName,
             @Value("${cloudinary.api.key}") String apiKey,
-            @Value("${cloudinary.api.secret}") String apiSecret) {
+            @Value("${cloudinary.api.secret}") String apiSecret,
+            @Value("${app.storage.cloudinary.known-assets:100000}") long knownAssetsSize) {
         
         cloudinary = new Cloudinary(ObjectUtils.asMap(
                 "cloud_name", cloudName,
                 "api_key", apiKey,
                 "api_secret", apiSecret
         ));
+        knownAssets = Caffeine.newBuilder()
+                .maximumSize(knownAssetsSize)
+                .build();
     }
     
-    public String uploadImage(MultipartFile file) throws IOException {
-        Map uploadResult = cloudinary.uploader().upload(file.getBytes(), 
-                ObjectUtils.asMap("folder", "adoptme/pets"));
-        return uploadResult.get("secure_url").toString();
+    // The content hash is the public id, so a repeated photo is looked up (locally, then with the
+    // Admin API) before any bytes are sent. A new photo is sent as a streamed body; overwrite=false
+    // keeps a concurrent upload of the same photo from replacing the stored asset.
+    @Override
+    public String store(Path file, String sha256, String extension) throws IOException {
+        String url = knownAssets.getIfPresent(sha256);
+        if (url == null) {
+            url = existingAsset(sha256);
+        }
+        if (url == null) {
+            Map uploadResult = cloudinary.uploader().upload(file.toFile(), ObjectUtils.asMap(
+                    "folder", FOLDER,
+                    "public_id", sha256,
+                    "overwrite", false
+            ));
+            url = uploadResult.get("secure_url").toString();
+        }
+        knownAssets.put(sha256, url);
+        return url;
+    }
+
+    // The Admin API is rate limited per hour; when the lookup fails the photo is uploaded anyway.
+    private String existingAsset(String sha256) {
+        try {
+            Map resource = cloudinary.api().resource(FOLDER + "/" + sha256, ObjectUtils.emptyMap());
+            return resource.get("secure_url").toString();
+        } catch (NotFound ex) {
+            return null;
+        } catch (Exception ex) {
+            log.warn("Could not look up Cloudinary asset {}; uploading it: {}", sha256, ex.getMessage());
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package com.adoptme.service;
+
+import com.adoptme.dto.ImageVariants;
+import com.adoptme.util.ImageVariant;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Backend that holds uploaded pet photos, selected with app.storage.type.
+// Blobs are addressed by the SHA-256 of their content, so storing the same photo twice
+// yields the same URL without keeping a second copy.
+public interface ImageStorage {
+
+    String store(Path file, String sha256, String extension) throws IOException;
+
+    // URL of a resized rendition of a stored image. Photos stored on Cloudinary are resized
+    // there whichever backend is active; unknown URLs are returned unchanged.
+    default String variantUrl(String url, ImageVariant variant) {
+        return variant.cloudinaryUrl(url);
+    }
+
+    default List<ImageVariants> variants(List<String> urls) {
+        List<ImageVariants> variants = new ArrayList<>();
+        if (urls == null) {
+            return variants;
+        }
+        for (String url : urls) {
+            variants.add(new ImageVariants(
+                    variantUrl(url, ImageVariant.THUMB),
+                    variantUrl(url, ImageVariant.CARD),
+                    variantUrl(url, ImageVariant.FULL)
+            ));
+        }
+        return variants;
+    }
+}
@@ -0,0 +1,168 @@
+package com.adoptme.service;
+
+import com.adoptme.config.UploadConfig;
+import com.adoptme.exception.CustomException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class ImageUploadService {
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", "jpg",
+            "image/png", "png",
+            "image/webp", "webp",
+            "image/gif", "gif"
+    );
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @Autowired
+    @Qualifier(UploadConfig.IMAGE_UPLOAD_EXECUTOR)
+    private TaskExecutor uploadExecutor;
+
+    @Value("${app.uploads.max-files:6}")
+    private int maxFilesPerRequest;
+
+    // Streams from disk: the multipart part is moved to a temp file, hashed in one pass and handed
+    // to the storage backend as a file, so the image is never held on the heap as a byte[].
+    public String uploadImage(MultipartFile file) throws IOException {
+        String extension = extensionFor(file);
+        Path tempFile = spool(file);
+        try {
+            return store(tempFile, extension);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    public String extensionFor(MultipartFile file) {
+        String extension = EXTENSIONS.get(file.getContentType());
+        if (extension == null) {
+            throw new CustomException("Only JPEG, PNG, WebP and GIF images are supported");
+        }
+        return extension;
+    }
+
+    // Moves the part out of the request's multipart area (a rename when on the same filesystem),
+    // so the file outlives the request. The caller owns the returned file.
+    public Path spool(MultipartFile file) throws IOException {
+        Path tempFile = Files.createTempFile("adoptme-upload-", ".tmp");
+        try {
+            file.transferTo(tempFile.toFile());
+            return tempFile;
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tempFile);
+            throw ex;
+        }
+    }
+
+    public String store(Path file, String extension) throws IOException {
+        return imageStorage.store(file, sha256(file), extension);
+    }
+
+    // Uploads a listing's photos concurrently; URLs are returned in the order the files were sent.
+    // The parts are spooled on the request thread, so the upload tasks only touch files this method
+    // owns, and no task is still running when the request ends.
+    public List<String> uploadImages(List<MultipartFile> files) throws IOException {
+        if (files == null || files.isEmpty()) {
+            throw new CustomException("At least one file is required");
+        }
+        if (files.size() > maxFilesPerRequest) {
+            throw new CustomException("At most " + maxFilesPerRequest + " files can be uploaded at once");
+        }
+        List<String> extensions = new ArrayList<>();
+        for (MultipartFile file : files) {
+            extensions.add(extensionFor(file));
+        }
+
+        List<Path> spooled = new ArrayList<>();
+        try {
+            for (MultipartFile file : files) {
+                spooled.add(spool(file));
+            }
+            AtomicBoolean failed = new AtomicBoolean();
+            List<CompletableFuture<String>> uploads = new ArrayList<>();
+            for (int i = 0; i < spooled.size(); i++) {
+                Path file = spooled.get(i);
+                String extension = extensions.get(i);
+                uploads.add(CompletableFuture.supplyAsync(() -> {
+                    if (failed.get()) {
+                        throw new CancellationException();
+                    }
+                    try {
+                        return store(file, extension);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }, uploadExecutor));
+            }
+            return awaitAll(uploads, failed);
+        } finally {
+            for (Path file : spooled) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // On the first failure, uploads that have not started are skipped and the running ones are
+    // waited for before the error is rethrown, so none of them outlives its spooled file.
+    // CompletableFuture.cancel would not do: it completes the future but leaves the task running.
+    private static List<String> awaitAll(List<CompletableFuture<String>> uploads, AtomicBoolean failed)
+            throws IOException {
+        List<String> imageUrls = new ArrayList<>();
+        try {
+            for (CompletableFuture<String> upload : uploads) {
+                imageUrls.add(upload.join());
+            }
+        } catch (CompletionException ex) {
+            failed.set(true);
+            CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new))
+                    .exceptionally(ignored -> null)
+                    .join();
+            if (ex.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw ex;
+        }
+        return imageUrls;
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
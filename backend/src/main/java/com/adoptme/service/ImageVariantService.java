@@ -0,0 +1,190 @@
+package com.adoptme.service;
+
+import com.adoptme.config.UploadConfig;
+import com.adoptme.util.ImageVariant;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Resized renditions of locally stored photos, generated on first request and cached on disk.
+// Concurrent requests for the same missing variant share one resize.
+@Service
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local")
+public class ImageVariantService {
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final long MAX_DECODED_PIXELS = 40_000_000L;
+    // Formats ImageIO can re-encode, by the extension the variant is stored under; others (e.g. WebP)
+    // are served as stored. GIF variants are always PNG, even when no resize is needed.
+    private static final Map<String, String> OUTPUT_EXTENSIONS = Map.of(
+            "jpg", "jpg",
+            "png", "png",
+            "gif", "png"
+    );
+
+    @Autowired
+    private LocalImageStorage localImageStorage;
+
+    @Autowired
+    @Qualifier(UploadConfig.IMAGE_VARIANT_EXECUTOR)
+    private TaskExecutor variantExecutor;
+
+    private final Map<Path, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    // Returns the file to serve for the variant: the cached rendition, or the original when the image
+    // is already small enough or cannot be re-encoded. Returns null when the resize pool is saturated.
+    public Path getVariant(Path original, String name, ImageVariant variant) throws IOException {
+        String sourceExtension = name.substring(name.indexOf('.') + 1);
+        String extension = OUTPUT_EXTENSIONS.get(sourceExtension);
+        if (extension == null) {
+            return original;
+        }
+        Path target = localImageStorage.resolveVariant(name, variant, extension);
+        if (Files.exists(target)) {
+            return target;
+        }
+
+        CompletableFuture<Path> resize;
+        try {
+            resize = inFlight.computeIfAbsent(target, key -> CompletableFuture.supplyAsync(() -> {
+                try {
+                    return resize(original, target, variant, sourceExtension, extension);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }, variantExecutor));
+        } catch (TaskRejectedException ex) {
+            return null;
+        }
+
+        try {
+            return resize.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw ex;
+        } finally {
+            inFlight.remove(target, resize);
+        }
+    }
+
+    private Path resize(Path original, Path target, ImageVariant variant, String sourceExtension, String extension)
+            throws IOException {
+        if (!withinDecodeLimit(original)) {
+            return original;
+        }
+        BufferedImage source = ImageIO.read(original.toFile());
+        if (source == null) {
+            return original;
+        }
+
+        Files.createDirectories(target.getParent());
+        Path staging = Files.createTempFile(target.getParent(), "variant", ".part");
+        try {
+            if (source.getWidth() > variant.getMaxWidth()) {
+                writeScaled(source, staging, variant, extension);
+            } else if (sourceExtension.equals(extension)) {
+                // Already small enough: cache a copy so later requests skip decoding.
+                Files.copy(original, staging, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                // Small enough but stored in another format: the bytes must match the variant's type.
+                ImageIO.write(source, extension, staging.toFile());
+            }
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(staging);
+        }
+        return target;
+    }
+
+    // Reads only the header, so an upload that is small on disk but enormous once decoded
+    // cannot exhaust the heap.
+    private static boolean withinDecodeLimit(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) {
+                return false;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return false;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in);
+                return (long) reader.getWidth(0) * reader.getHeight(0) <= MAX_DECODED_PIXELS;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static void writeScaled(BufferedImage source, Path file, ImageVariant variant, String extension) throws IOException {
+        int width = variant.getMaxWidth();
+        int height = Math.max(1, Math.round(source.getHeight() * (float) width / source.getWidth()));
+        boolean alpha = "png".equals(extension) && source.getColorModel().hasAlpha();
+        BufferedImage scaled = scale(source, width, height, alpha);
+        if ("jpg".equals(extension)) {
+            writeJpeg(scaled, file);
+        } else {
+            ImageIO.write(scaled, "png", file.toFile());
+        }
+    }
+
+    // Halves the image until it is within 2x of the target before the final step; a single
+    // bilinear step from a large photo skips most source pixels and looks aliased.
+    private static BufferedImage scale(BufferedImage source, int width, int height, boolean alpha) {
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight,
+                    alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            graphics.dispose();
+            current = next;
+        } while (currentWidth > width || currentHeight > height);
+        return current;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
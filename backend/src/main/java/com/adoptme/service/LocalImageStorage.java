@@ -0,0 +1,78 @@
+package com.adoptme.service;
+
+import com.adoptme.util.ImageVariant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.regex.Pattern;
+
+// Filesystem store for offline development and load tests. Blobs live under
+// {dir}/{first two hash chars}/{hash}.{ext} and are served by ImageController.
+@Service
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local")
+public class LocalImageStorage implements ImageStorage {
+    public static final Pattern BLOB_NAME = Pattern.compile("[0-9a-f]{64}\\.[a-z]{3,4}");
+
+    private final Path root;
+    private final String baseUrl;
+
+    public LocalImageStorage(
+            @Value("${app.storage.local.dir:./data/images}") String dir,
+            @Value("${app.storage.local.base-url:http://localhost:8080}") String baseUrl) throws IOException {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        Files.createDirectories(root);
+    }
+
+    @Override
+    public String store(Path file, String sha256, String extension) throws IOException {
+        String name = sha256 + "." + extension;
+        Path target = resolve(name);
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            // Move into a sibling temp name first so a reader never sees a partially written blob.
+            Path staging = Files.createTempFile(target.getParent(), sha256, ".part");
+            try {
+                Files.move(file, staging, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException ex) {
+                // A concurrent upload of the same content won the race; its blob is identical.
+            } finally {
+                Files.deleteIfExists(staging);
+            }
+        }
+        return baseUrl + "/api/images/" + name;
+    }
+
+    @Override
+    public String variantUrl(String url, ImageVariant variant) {
+        String prefix = baseUrl + "/api/images/";
+        if (url == null || !url.startsWith(prefix) || resolve(url.substring(prefix.length())) == null) {
+            return ImageStorage.super.variantUrl(url, variant);
+        }
+        return prefix + variant.key() + "/" + url.substring(prefix.length());
+    }
+
+    // Variants are cached next to the originals under {dir}/variants/{variant}/.
+    public Path resolveVariant(String name, ImageVariant variant, String extension) {
+        return root.resolve("variants")
+                .resolve(variant.key())
+                .resolve(name.substring(0, 2))
+                .resolve(name.substring(0, name.indexOf('.')) + "." + extension);
+    }
+
+    // Returns null for names that are not blob names, so callers cannot escape the store directory.
+    public Path resolve(String name) {
+        if (name == null || !BLOB_NAME.matcher(name).matches()) {
+            return null;
+        }
+        return root.resolve(name.substring(0, 2)).resolve(name);
+    }
+}
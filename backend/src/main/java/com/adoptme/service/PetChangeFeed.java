@@ -0,0 +1,104 @@
+package com.adoptme.service;
+
+import com.adoptme.dto.PetChangeEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Pushes catalog deltas to /topic/pets (and /topic/pets/type/{type}) so clients can patch their
+// lists instead of polling. Changes are buffered per pet and flushed on a short interval, so a
+// pet edited several times in one window produces a single merged event.
+@Service
+public class PetChangeFeed {
+    public static final String TOPIC = "/topic/pets";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final Map<Long, PetChangeEvent> pending = new ConcurrentHashMap<>();
+
+    // Only committed changes are published; a rolled-back edit never reaches clients.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPetChanged(PetChangeEvent event) {
+        pending.merge(event.getPetId(), event, PetChangeFeed::coalesce);
+    }
+
+    @Scheduled(fixedDelayString = "${app.pets.feed.flush-interval-ms:500}")
+    public void flush() {
+        for (Long petId : new ArrayList<>(pending.keySet())) {
+            PetChangeEvent event = pending.remove(petId);
+            if (event == null) {
+                continue;
+            }
+            messagingTemplate.convertAndSend(TOPIC, event);
+            for (String type : typeTopics(event)) {
+                messagingTemplate.convertAndSend(TOPIC + "/type/" + type, event);
+            }
+        }
+    }
+
+    private static PetChangeEvent coalesce(PetChangeEvent earlier, PetChangeEvent later) {
+        PetChangeEvent.Action action = later.getAction();
+        if (earlier.getAction() == PetChangeEvent.Action.CREATED && action == PetChangeEvent.Action.UPDATED) {
+            // Clients have not seen the pet yet, so it is still new to them.
+            action = PetChangeEvent.Action.CREATED;
+        }
+
+        Set<String> changedFields = new LinkedHashSet<>();
+        if (earlier.getChangedFields() != null) {
+            changedFields.addAll(earlier.getChangedFields());
+        }
+        if (later.getChangedFields() != null) {
+            changedFields.addAll(later.getChangedFields());
+        }
+
+        String previousType = earlier.getPreviousType() != null ? earlier.getPreviousType() : later.getPreviousType();
+        if (previousType != null && previousType.equals(later.getType())) {
+            previousType = null;
+        }
+
+        return new PetChangeEvent(
+                later.getPetId(),
+                action,
+                changedFields,
+                later.getType(),
+                previousType,
+                later.getLocation(),
+                later.getAdoptionStatus(),
+                later.getVersion()
+        );
+    }
+
+    // Per-type topics use the listing filter's comparison (trimmed, case-insensitive) turned into a
+    // destination-safe slug: "Guinea Pig" and " guinea pig" both map to /topic/pets/type/guinea-pig.
+    private static List<String> typeTopics(PetChangeEvent event) {
+        Set<String> types = new LinkedHashSet<>();
+        for (String type : new String[] {event.getType(), event.getPreviousType()}) {
+            String slug = typeSlug(type);
+            if (!slug.isEmpty()) {
+                types.add(slug);
+            }
+        }
+        return new ArrayList<>(types);
+    }
+
+    static String typeSlug(String type) {
+        if (type == null) {
+            return "";
+        }
+        return type.trim().toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9]+", "-")
+                .replaceAll("^-+|-+$", "");
+    }
+}
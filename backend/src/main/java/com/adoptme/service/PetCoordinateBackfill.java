@@ -0,0 +1,46 @@
+package com.adoptme.service;
+
+import com.adoptme.repository.PetRepository;
+import com.adoptme.util.GeoUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Fills in coordinates for listings created before they were stored, using their map links.
+// Every link looked at is marked as parsed, so links without coordinates are not re-read on
+// each startup.
+@Component
+public class PetCoordinateBackfill implements ApplicationRunner {
+    private static final int MARK_BATCH_SIZE = 1000;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        List<Long> unparseable = new ArrayList<>();
+        for (Object[] row : petRepository.findUnlocatedPetLinks()) {
+            double[] coordinates = GeoUtils.parseMapLink((String) row[1]);
+            if (coordinates == null) {
+                unparseable.add((Long) row[0]);
+                continue;
+            }
+            petRepository.updateCoordinates(
+                    (Long) row[0],
+                    coordinates[0],
+                    coordinates[1],
+                    GeoUtils.encodeGeohash(coordinates[0], coordinates[1], GeoUtils.STORED_GEOHASH_PRECISION)
+            );
+        }
+        for (int from = 0; from < unparseable.size(); from += MARK_BATCH_SIZE) {
+            petRepository.markLocationLinksParsed(
+                    unparseable.subList(from, Math.min(from + MARK_BATCH_SIZE, unparseable.size())));
+        }
+    }
+}
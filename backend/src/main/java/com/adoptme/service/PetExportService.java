@@ -0,0 +1,144 @@
+package com.adoptme.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+// Streams the whole catalog row by row. PostgreSQL only honours the fetch size (a server-side
+// cursor) inside a transaction, so every export runs in its own read-only transaction.
+@Service
+public class PetExportService {
+    private static final int FETCH_SIZE = 500;
+
+    private static final String EXPORT_SQL =
+            "SELECT p.id, p.name, p.age, p.type, p.description, p.contact_number, p.location, p.landmark, " +
+            "p.location_link, p.latitude, p.longitude, p.vaccination_status, p.stray, p.adoption_status, " +
+            "p.created_at, u.id AS listed_by_id, u.name AS listed_by_name, u.role AS listed_by_role, " +
+            "(SELECT string_agg(i.image_url, ' ' ORDER BY i.position) FROM pet_images i WHERE i.pet_id = p.id) AS image_urls " +
+            "FROM pets p JOIN users u ON u.id = p.listed_by " +
+            "ORDER BY p.id";
+
+    private static final String[] COLUMNS = {
+            "id", "name", "age", "type", "description", "contactNumber", "location", "landmark",
+            "locationLink", "latitude", "longitude", "vaccinationStatus", "stray", "adoptionStatus",
+            "createdAt", "listedById", "listedByName", "listedByRole", "imageUrls"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void exportNdjson(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // Records are separated by the '\n' written below, not Jackson's default space.
+            generator.setRootValueSeparator(null);
+            streamRows(rs -> {
+                try {
+                    generator.writeStartObject();
+                    for (int i = 0; i < COLUMNS.length - 1; i++) {
+                        Object value = readColumn(rs, i + 1);
+                        generator.writeFieldName(COLUMNS[i]);
+                        if (value == null) {
+                            generator.writeNull();
+                        } else if (value instanceof Number || value instanceof Boolean) {
+                            generator.writeObject(value);
+                        } else {
+                            generator.writeString(value.toString());
+                        }
+                    }
+                    generator.writeArrayFieldStart("imageUrls");
+                    String imageUrls = rs.getString(COLUMNS.length);
+                    if (imageUrls != null) {
+                        for (String url : imageUrls.split(" ")) {
+                            generator.writeString(url);
+                        }
+                    }
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    public void exportCsv(OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        try {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+            streamRows(rs -> {
+                try {
+                    for (int i = 0; i < COLUMNS.length; i++) {
+                        if (i > 0) {
+                            writer.write(',');
+                        }
+                        Object value = readColumn(rs, i + 1);
+                        if (value != null) {
+                            writer.write(escapeCsv(value.toString()));
+                        }
+                    }
+                    writer.write("\r\n");
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            writer.flush();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private void streamRows(RowCallbackHandler handler) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+            );
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, handler));
+    }
+
+    private Object readColumn(ResultSet rs, int index) throws SQLException {
+        Object value = rs.getObject(index);
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return value;
+    }
+
+    private String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
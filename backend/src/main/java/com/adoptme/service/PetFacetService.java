@@ -0,0 +1,115 @@
+package com.adoptme.service;
+
+import com.adoptme.entity.Pet;
+import com.adoptme.entity.PetFacetCount;
+import com.adoptme.repository.PetFacetCountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Browse-page counts per facet value, maintained by PetService on every write so reads never
+// aggregate the pets table. Reconciliation periodically rebuilds the counters from the table.
+@Service
+public class PetFacetService {
+    public static final String TYPE = "type";
+    public static final String ADOPTION_STATUS = "adoptionStatus";
+    public static final String STRAY = "stray";
+    public static final String LOCATION = "location";
+
+    @Autowired
+    private PetFacetCountRepository petFacetCountRepository;
+
+    @Value("${app.facets.max-values:50}")
+    private int maxValuesPerFacet;
+
+    public Map<String, String> snapshot(Pet pet) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put(TYPE, normalize(pet.getType()));
+        values.put(ADOPTION_STATUS, pet.getAdoptionStatus() != null ? pet.getAdoptionStatus().name() : null);
+        values.put(STRAY, pet.getStray() != null ? pet.getStray().toString() : null);
+        values.put(LOCATION, normalize(pet.getLocation()));
+        return values;
+    }
+
+    // Must join the caller's transaction so the counters commit or roll back with the pet write.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(Map<String, String> before, Map<String, String> after) {
+        Map<PetFacetCount.Key, Long> deltas = new HashMap<>();
+        addDeltas(deltas, before, after);
+        applyDeltas(deltas);
+    }
+
+    // Bulk inserts: one upsert per distinct facet value instead of one per pet.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAdded(List<Map<String, String>> snapshots) {
+        Map<PetFacetCount.Key, Long> deltas = new HashMap<>();
+        for (Map<String, String> snapshot : snapshots) {
+            addDeltas(deltas, null, snapshot);
+        }
+        applyDeltas(deltas);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Map<String, Long>> getFacets() {
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        for (String facet : List.of(TYPE, ADOPTION_STATUS, STRAY, LOCATION)) {
+            facets.put(facet, new LinkedHashMap<>());
+        }
+        for (PetFacetCount count : petFacetCountRepository.findNonEmpty()) {
+            Map<String, Long> values = facets.computeIfAbsent(count.getFacet(), facet -> new LinkedHashMap<>());
+            if (values.size() < maxValuesPerFacet) {
+                values.put(count.getValue(), count.getPetCount());
+            }
+        }
+        return facets;
+    }
+
+    // Writes racing with a rebuild can leave a counter off by one until the next run, which is acceptable for browse counts.
+    @Scheduled(initialDelayString = "${app.facets.reconcile-initial-delay-ms:0}",
+            fixedDelayString = "${app.facets.reconcile-interval-ms:3600000}")
+    @Transactional
+    public void reconcile() {
+        petFacetCountRepository.deleteAllInBatch();
+        petFacetCountRepository.insertRecount();
+    }
+
+    private void addDeltas(Map<PetFacetCount.Key, Long> deltas, Map<String, String> before, Map<String, String> after) {
+        for (String facet : List.of(TYPE, ADOPTION_STATUS, STRAY, LOCATION)) {
+            String oldValue = before != null ? before.get(facet) : null;
+            String newValue = after != null ? after.get(facet) : null;
+            if (Objects.equals(oldValue, newValue)) {
+                continue;
+            }
+            if (oldValue != null) {
+                deltas.merge(new PetFacetCount.Key(facet, oldValue), -1L, Long::sum);
+            }
+            if (newValue != null) {
+                deltas.merge(new PetFacetCount.Key(facet, newValue), 1L, Long::sum);
+            }
+        }
+    }
+
+    private void applyDeltas(Map<PetFacetCount.Key, Long> deltas) {
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                petFacetCountRepository.increment(key.getFacet(), key.getValue(), delta);
+            }
+        });
+    }
+
+    private String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase();
+    }
+}
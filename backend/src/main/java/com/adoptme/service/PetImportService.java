@@ -0,0 +1,239 @@
+package com.adoptme.service;
+
+import com.adoptme.dto.PetImportResponse;
+import com.adoptme.dto.PetRequest;
+import com.adoptme.exception.CustomException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Parses an uploaded CSV/NDJSON file row by row and hands valid rows to PetService in chunks,
+// so the file is never held in memory and a bad row or chunk never aborts the rest of the file.
+@Service
+public class PetImportService {
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public PetImportResponse importPets(InputStream input, String format, Long userId) throws IOException {
+        ImportRun run = new ImportRun(userId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        if (FORMAT_NDJSON.equals(format)) {
+            readNdjson(reader, run);
+        } else if (FORMAT_CSV.equals(format)) {
+            readCsv(reader, run);
+        } else {
+            throw new CustomException("Unsupported import format. Use csv or ndjson");
+        }
+        run.flush();
+
+        run.errors.sort(Comparator.comparingInt(PetImportResponse.RowError::getRow));
+        return new PetImportResponse(run.imported, run.failed, run.errors);
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        int row = 0;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            row++;
+            try {
+                run.add(row, objectMapper.readValue(line, PetRequest.class));
+            } catch (JsonProcessingException ex) {
+                run.reject(row, "Malformed JSON: " + ex.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            return;
+        }
+        List<String> columns = header.stream()
+                .map(String::trim)
+                .collect(Collectors.toList());
+
+        List<String> record;
+        int row = 0;
+        while ((record = readCsvRecord(reader)) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            row++;
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < columns.size() && i < record.size(); i++) {
+                values.put(columns.get(i), record.get(i));
+            }
+            try {
+                run.add(row, toRequest(values));
+            } catch (IllegalArgumentException ex) {
+                run.reject(row, ex.getMessage());
+            }
+        }
+    }
+
+    private PetRequest toRequest(Map<String, String> values) {
+        PetRequest request = new PetRequest();
+        request.setName(values.get("name"));
+        request.setAge(parseNumber(values.get("age"), "age", Integer::valueOf));
+        request.setType(values.get("type"));
+        request.setDescription(values.get("description"));
+        request.setContactNumber(values.get("contactNumber"));
+        request.setLocation(values.get("location"));
+        request.setLandmark(values.get("landmark"));
+        request.setLocationLink(values.get("locationLink"));
+        request.setLatitude(parseNumber(values.get("latitude"), "latitude", Double::valueOf));
+        request.setLongitude(parseNumber(values.get("longitude"), "longitude", Double::valueOf));
+        request.setVaccinationStatus(values.get("vaccinationStatus"));
+        String stray = values.get("stray");
+        request.setStray(stray == null || stray.isBlank() ? null : Boolean.valueOf(stray.trim()));
+        request.setAdoptionStatus(values.get("adoptionStatus"));
+        String imageUrls = values.get("imageUrls");
+        if (imageUrls != null && !imageUrls.isBlank()) {
+            request.setImageUrls(Arrays.asList(imageUrls.trim().split("[\\s|]+")));
+        }
+        return request;
+    }
+
+    private <T> T parseNumber(String value, String field, Function<String, T> parser) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    // RFC 4180 record: quoted fields may contain commas, doubled quotes and line breaks.
+    private List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean sawAny = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            sawAny = true;
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                break;
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+        }
+        if (!sawAny) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private class ImportRun {
+        private final Long userId;
+        private final List<Integer> chunkRows = new ArrayList<>();
+        private final List<PetRequest> chunk = new ArrayList<>();
+        private final List<PetImportResponse.RowError> errors = new ArrayList<>();
+        private int imported;
+        private int failed;
+
+        private ImportRun(Long userId) {
+            this.userId = userId;
+        }
+
+        private void add(int row, PetRequest request) {
+            Set<ConstraintViolation<PetRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                reject(row, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            chunkRows.add(row);
+            chunk.add(request);
+            if (chunk.size() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        private void reject(int row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new PetImportResponse.RowError(row, message));
+            }
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                Map<Integer, String> rejected = petService.importPets(chunk, userId);
+                imported += chunk.size() - rejected.size();
+                rejected.forEach((index, message) -> reject(chunkRows.get(index), message));
+            } catch (DataAccessException | TransactionException ex) {
+                for (Integer row : chunkRows) {
+                    reject(row, "Could not save row: " + ex.getMostSpecificCause().getMessage());
+                }
+            }
+            chunk.clear();
+            chunkRows.clear();
+        }
+    }
+}
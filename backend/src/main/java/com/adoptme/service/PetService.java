@@ -1,84 +1,272 @@
 package com.adoptme.service;
 
+import com.adoptme.config.CacheConfig;
+import com.adoptme.dto.CursorPage;
+import com.adoptme.dto.NearbyPetResponse;
+import com.adoptme.dto.PetChangeEvent;
+import com.adoptme.dto.PetFilter;
 import com.adoptme.dto.PetRequest;
 import com.adoptme.dto.PetResponse;
+import com.adoptme.dto.PetSummary;
 import com.adoptme.entity.Pet;
 import com.adoptme.entity.User;
 import com.adoptme.exception.CustomException;
+import com.adoptme.repository.PetCursor;
 import com.adoptme.repository.PetRepository;
 import com.adoptme.repository.UserRepository;
+import com.adoptme.util.GeoUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class PetService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final double DEFAULT_NEARBY_RADIUS_KM = 10;
+    private static final double MAX_NEARBY_RADIUS_KM = 100;
+    private static final Set<String> SUMMARY_FIELDS = Set.of(
+            "name", "type", "age", "location", "adoptionStatus", "thumbnailUrl", "createdAt");
+    private static final Set<String> SPARSE_FIELDS = Set.of(
+            "id", "name", "age", "type", "description", "contactNumber", "location", "landmark",
+            "locationLink", "latitude", "longitude", "vaccinationStatus", "stray", "adoptionStatus",
+            "imageUrls", "images", "thumbnailUrl", "listedById", "listedByName", "listedByRole", "createdAt", "version");
 
     @Autowired
     private PetRepository petRepository;
 
+    @Value("${app.pets.nearby.max-candidates:2000}")
+    private int maxNearbyCandidates;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PetFacetService petFacetService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Any write can change which pets a filtered listing or page contains, so listings are
+    // flushed wholesale while single-pet entries are replaced or evicted by id.
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.PETS, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.PET_LISTINGS, allEntries = true)
+    )
+    @Transactional
     public PetResponse addPet(PetRequest request, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new CustomException("User not found"));
+        User user = findLister(userId);
 
-        if (user.getRole() != User.UserRole.COMMON_LISTER &&
-            user.getRole() != User.UserRole.NGO_LISTER) {
-            throw new CustomException("Only listers can add pets");
+        Pet savedPet = petRepository.save(newPet(request, user));
+        petFacetService.recordChange(null, petFacetService.snapshot(savedPet));
+        eventPublisher.publishEvent(changeEvent(savedPet, PetChangeEvent.Action.CREATED, null, null));
+
+        return convertToResponse(savedPet);
+    }
+
+    // Persists one import chunk in a single transaction with batched inserts. Rows that fail
+    // mapping are skipped and returned as (index in requests -> message).
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PET_LISTINGS, allEntries = true)
+    public Map<Integer, String> importPets(List<PetRequest> requests, Long userId) {
+        User user = findLister(userId);
+
+        Map<Integer, String> rejected = new LinkedHashMap<>();
+        List<Pet> pets = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                pets.add(newPet(requests.get(i), user));
+            } catch (CustomException ex) {
+                rejected.put(i, ex.getMessage());
+            }
         }
 
-        Pet pet = new Pet();
-        pet.setName(request.getName());
-        pet.setAge(request.getAge());
-        pet.setType(request.getType());
-        pet.setDescription(request.getDescription());
-        pet.setContactNumber(request.getContactNumber());
-        pet.setLocation(request.getLocation().trim());
-        pet.setLandmark(normalizeOptional(request.getLandmark()));
-        pet.setLocationLink(normalizeOptional(request.getLocationLink()));
-        pet.setVaccinationStatus(normalizeOptional(request.getVaccinationStatus()));
-        pet.setStray(request.getStray());
-        Pet.AdoptionStatus adoptionStatus = parseAdoptionStatus(request.getAdoptionStatus());
-        if (adoptionStatus != null) {
-            pet.setAdoptionStatus(adoptionStatus);
+        petRepository.saveAll(pets);
+        petRepository.flush();
+        petFacetService.recordAdded(pets.stream()
+                .map(petFacetService::snapshot)
+                .collect(Collectors.toList()));
+        // Chunks share the request's persistence context (open-in-view); don't let it accumulate.
+        entityManager.clear();
+
+        return rejected;
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PET_LISTINGS, key = "{'page', #filter, #cursor, #limit}")
+    public CursorPage<PetResponse> getPetsPage(PetFilter filter, String cursor, Integer limit) {
+        validateFilter(filter);
+        int pageSize = resolvePageSize(limit);
+        PetFilter.Sort sort = filter.resolvedSort();
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query.
+        List<PetResponse> pets = petRepository.findListingPage(filter, PetCursor.decode(cursor, sort), pageSize + 1);
+        boolean hasMore = pets.size() > pageSize;
+        if (hasMore) {
+            pets = pets.subList(0, pageSize);
         }
-        pet.setImageUrls(sanitizeImageUrls(request.getImageUrls()));
-        pet.setListedBy(user);
 
-        Pet savedPet = petRepository.save(pet);
+        String nextCursor = null;
+        if (hasMore) {
+            nextCursor = PetCursor.after(pets.get(pets.size() - 1), sort).encode();
+        }
 
-        return convertToResponse(savedPet);
+        return new CursorPage<>(new ArrayList<>(pets), nextCursor, hasMore);
     }
 
-    public List<PetResponse> getAllPets(String location, String type) {
-        List<Pet> pets;
-        boolean hasLocation = location != null && !location.isBlank();
-        boolean hasType = type != null && !type.isBlank();
-
-        if (hasLocation && hasType) {
-            pets = petRepository.findByLocationContainingIgnoreCaseAndTypeIgnoreCase(
-                    location.trim(),
-                    type.trim()
-            );
-        } else if (hasLocation) {
-            pets = petRepository.findByLocationContainingIgnoreCase(location.trim());
-        } else if (hasType) {
-            pets = petRepository.findByTypeIgnoreCase(type.trim());
-        } else {
-            pets = petRepository.findAll();
+    @Cacheable(cacheNames = CacheConfig.PET_LISTINGS, key = "{'summary', #filter, #cursor, #limit}")
+    public CursorPage<PetSummary> getPetSummaries(PetFilter filter, String cursor, Integer limit) {
+        CursorPage<Map<String, Object>> page = querySparsePage(filter, cursor, limit, SUMMARY_FIELDS);
+        List<PetSummary> summaries = page.getItems().stream()
+                .map(item -> new PetSummary(
+                        (Long) item.get("id"),
+                        (String) item.get("name"),
+                        (String) item.get("type"),
+                        (Integer) item.get("age"),
+                        (String) item.get("location"),
+                        (String) item.get("adoptionStatus"),
+                        (String) item.get("thumbnailUrl"),
+                        (LocalDateTime) item.get("createdAt")
+                ))
+                .collect(Collectors.toList());
+        return new CursorPage<>(summaries, page.getNextCursor(), page.isHasMore());
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PET_LISTINGS, key = "{'fields', #filter, #fields, #cursor, #limit}")
+    public CursorPage<Map<String, Object>> getPetsPageFields(PetFilter filter, String fields, String cursor, Integer limit) {
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!SPARSE_FIELDS.contains(name)) {
+                throw new CustomException("Unknown field: " + name);
+            }
+            requested.add(name);
+        }
+        if (requested.isEmpty()) {
+            throw new CustomException("At least one field is required");
+        }
+        return querySparsePage(filter, cursor, limit, requested);
+    }
+
+    private CursorPage<Map<String, Object>> querySparsePage(PetFilter filter, String cursor, Integer limit, Set<String> fields) {
+        validateFilter(filter);
+        int pageSize = resolvePageSize(limit);
+        PetFilter.Sort sort = filter.resolvedSort();
+
+        List<Map<String, Object>> items = petRepository.findSparsePage(
+                filter, PetCursor.decode(cursor, sort), pageSize + 1, fields);
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Map<String, Object> last = items.get(items.size() - 1);
+            nextCursor = PetCursor.after(
+                    (Long) last.get("id"),
+                    (LocalDateTime) last.get("createdAt"),
+                    (Integer) last.get("age"),
+                    sort
+            ).encode();
+        }
+
+        // The repository always returns the sort key for the cursor; drop it unless it was asked for.
+        String sortKey = sort == PetFilter.Sort.RECENT ? "createdAt" : "age";
+        if (!fields.contains(sortKey)) {
+            items.forEach(item -> item.remove(sortKey));
+        }
+        return new CursorPage<>(new ArrayList<>(items), nextCursor, hasMore);
+    }
+
+    public List<PetResponse> searchPets(String query, Integer limit) {
+        String searchQuery = normalizeOptional(query);
+        if (searchQuery == null) {
+            throw new CustomException("Search query is required");
+        }
+
+        List<Long> rankedIds = petRepository.searchIds(searchQuery, resolvePageSize(limit));
+        Map<Long, Integer> rankById = new HashMap<>();
+        for (int i = 0; i < rankedIds.size(); i++) {
+            rankById.put(rankedIds.get(i), i);
+        }
+
+        return petRepository.findListingsByIds(rankedIds).stream()
+                .sorted(Comparator.comparing(pet -> rankById.get(pet.getId())))
+                .collect(Collectors.toList());
+    }
+
+    public List<NearbyPetResponse> getNearbyPets(Double latitude, Double longitude, Double radiusKm, Integer limit) {
+        if (!GeoUtils.isValidCoordinate(latitude, longitude)) {
+            throw new CustomException("Invalid coordinates");
+        }
+        double radius = radiusKm != null ? radiusKm : DEFAULT_NEARBY_RADIUS_KM;
+        if (radius <= 0 || radius > MAX_NEARBY_RADIUS_KM) {
+            throw new CustomException("Radius must be between 0 and " + (int) MAX_NEARBY_RADIUS_KM + " km");
+        }
+        int pageSize = resolvePageSize(limit);
+
+        // The geohash cells bound the candidate set, capped at the nearest maxNearbyCandidates rows;
+        // exact distances are computed only for those.
+        Map<Long, Double> distanceById = new HashMap<>();
+        List<Object[]> candidates = petRepository.findCoordinatesInCells(
+                GeoUtils.coveringCells(latitude, longitude, radius), latitude, longitude, maxNearbyCandidates);
+        for (Object[] row : candidates) {
+            double distance = GeoUtils.distanceKm(latitude, longitude, (Double) row[1], (Double) row[2]);
+            if (distance <= radius) {
+                distanceById.put((Long) row[0], distance);
+            }
         }
 
-        return pets.stream()
-                .map(this::convertToResponse)
+        List<Long> nearestIds = distanceById.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .limit(pageSize)
+                .map(Map.Entry::getKey)
                 .collect(Collectors.toList());
+
+        return petRepository.findListingsByIds(nearestIds).stream()
+                .map(pet -> new NearbyPetResponse(pet, distanceById.get(pet.getId())))
+                .sorted(Comparator.comparingDouble(NearbyPetResponse::getDistanceKm))
+                .collect(Collectors.toList());
+    }
+
+    // Lets conditional GETs answer 304 without loading the pet or its images.
+    public Long getPetVersion(Long id) {
+        return petRepository.findVersionById(id)
+                .orElseThrow(() -> new CustomException("Pet not found"));
     }
 
+    @Cacheable(cacheNames = CacheConfig.PETS, key = "#id")
     public PetResponse getPetById(Long id) {
         Pet pet = petRepository.findById(id)
                 .orElseThrow(() -> new CustomException("Pet not found"));
@@ -86,15 +274,23 @@ public class PetService {
     }
 
     public List<PetResponse> getMyPets(Long userId) {
-        return petRepository.findByListedById(userId).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return petRepository.findListingsByLister(userId);
     }
 
-    public PetResponse updatePet(Long petId, PetRequest request, Long userId) {
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.PETS, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.PET_LISTINGS, allEntries = true)
+    )
+    @Transactional
+    public PetResponse updatePet(Long petId, PetRequest request, Long userId, Long expectedVersion) {
         Pet pet = petRepository.findById(petId)
                 .orElseThrow(() -> new CustomException("Pet not found"));
         validatePetOwnership(pet, userId);
+        if (expectedVersion != null && !expectedVersion.equals(pet.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Pet was modified by someone else");
+        }
+        Map<String, String> facetsBefore = petFacetService.snapshot(pet);
+        Map<String, Object> valuesBefore = editableValues(pet);
 
         pet.setName(request.getName());
         pet.setAge(request.getAge());
@@ -103,7 +299,9 @@ public class PetService {
         pet.setContactNumber(request.getContactNumber());
         pet.setLocation(request.getLocation().trim());
         pet.setLandmark(normalizeOptional(request.getLandmark()));
+        String previousLocationLink = pet.getLocationLink();
         pet.setLocationLink(normalizeOptional(request.getLocationLink()));
+        applyCoordinates(pet, request, !Objects.equals(previousLocationLink, pet.getLocationLink()));
         pet.setVaccinationStatus(normalizeOptional(request.getVaccinationStatus()));
         if (request.getStray() != null) {
             pet.setStray(request.getStray());
@@ -112,21 +310,76 @@ public class PetService {
         if (adoptionStatus != null) {
             pet.setAdoptionStatus(adoptionStatus);
         }
-        pet.setImageUrls(sanitizeImageUrls(request.getImageUrls()));
+        replaceImageUrls(pet.getImageUrls(), sanitizeImageUrls(request.getImageUrls()));
+
+        // Flush so the bumped @Version is visible to the response, cache entry and change event.
+        Pet updatedPet = petRepository.saveAndFlush(pet);
+        petFacetService.recordChange(facetsBefore, petFacetService.snapshot(updatedPet));
 
-        Pet updatedPet = petRepository.save(pet);
+        Map<String, Object> valuesAfter = editableValues(updatedPet);
+        Set<String> changedFields = new LinkedHashSet<>();
+        valuesAfter.forEach((field, value) -> {
+            if (!Objects.equals(valuesBefore.get(field), value)) {
+                changedFields.add(field);
+            }
+        });
+        if (!changedFields.isEmpty()) {
+            String previousType = changedFields.contains("type") ? (String) valuesBefore.get("type") : null;
+            eventPublisher.publishEvent(changeEvent(updatedPet, PetChangeEvent.Action.UPDATED, changedFields, previousType));
+        }
         return convertToResponse(updatedPet);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PETS, key = "#petId"),
+            @CacheEvict(cacheNames = CacheConfig.PET_LISTINGS, allEntries = true)
+    })
+    @Transactional
     public String deletePet(Long petId, Long userId) {
         Pet pet = petRepository.findById(petId)
                 .orElseThrow(() -> new CustomException("Pet not found"));
         validatePetOwnership(pet, userId);
 
+        petFacetService.recordChange(petFacetService.snapshot(pet), null);
+        PetChangeEvent event = changeEvent(pet, PetChangeEvent.Action.DELETED, null, null);
         petRepository.delete(pet);
+        eventPublisher.publishEvent(event);
         return "Pet deleted successfully";
     }
 
+    private PetChangeEvent changeEvent(Pet pet, PetChangeEvent.Action action, Set<String> changedFields, String previousType) {
+        return new PetChangeEvent(
+                pet.getId(),
+                action,
+                changedFields,
+                pet.getType(),
+                previousType,
+                pet.getLocation(),
+                pet.getAdoptionStatus() != null ? pet.getAdoptionStatus().name() : null,
+                pet.getVersion()
+        );
+    }
+
+    // Values a lister can edit, keyed by their PetResponse property names.
+    private Map<String, Object> editableValues(Pet pet) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("name", pet.getName());
+        values.put("age", pet.getAge());
+        values.put("type", pet.getType());
+        values.put("description", pet.getDescription());
+        values.put("contactNumber", pet.getContactNumber());
+        values.put("location", pet.getLocation());
+        values.put("landmark", pet.getLandmark());
+        values.put("locationLink", pet.getLocationLink());
+        values.put("latitude", pet.getLatitude());
+        values.put("longitude", pet.getLongitude());
+        values.put("vaccinationStatus", pet.getVaccinationStatus());
+        values.put("stray", pet.getStray());
+        values.put("adoptionStatus", pet.getAdoptionStatus());
+        values.put("imageUrls", pet.getImageUrls() != null ? new ArrayList<>(pet.getImageUrls()) : null);
+        return values;
+    }
+
     private PetResponse convertToResponse(Pet pet) {
         return new PetResponse(
                 pet.getId(),
@@ -138,17 +391,115 @@ public class PetService {
                 pet.getLocation(),
                 pet.getLandmark(),
                 pet.getLocationLink(),
+                pet.getLatitude(),
+                pet.getLongitude(),
                 pet.getVaccinationStatus(),
                 pet.getStray(),
                 pet.getAdoptionStatus() != null ? pet.getAdoptionStatus().name() : null,
                 pet.getImageUrls(),
+                imageStorage.variants(pet.getImageUrls()),
                 pet.getListedBy().getId(),
                 pet.getListedBy().getName(),
                 pet.getListedBy().getRole().name(),
-                pet.getCreatedAt()
+                pet.getCreatedAt(),
+                pet.getVersion()
         );
     }
 
+    private User findLister(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new CustomException("User not found"));
+
+        if (user.getRole() != User.UserRole.COMMON_LISTER &&
+            user.getRole() != User.UserRole.NGO_LISTER) {
+            throw new CustomException("Only listers can add pets");
+        }
+        return user;
+    }
+
+    private Pet newPet(PetRequest request, User user) {
+        Pet pet = new Pet();
+        pet.setName(request.getName());
+        pet.setAge(request.getAge());
+        pet.setType(request.getType());
+        pet.setDescription(request.getDescription());
+        pet.setContactNumber(request.getContactNumber());
+        pet.setLocation(request.getLocation().trim());
+        pet.setLandmark(normalizeOptional(request.getLandmark()));
+        pet.setLocationLink(normalizeOptional(request.getLocationLink()));
+        applyCoordinates(pet, request, true);
+        pet.setVaccinationStatus(normalizeOptional(request.getVaccinationStatus()));
+        pet.setStray(request.getStray());
+        Pet.AdoptionStatus adoptionStatus = parseAdoptionStatus(request.getAdoptionStatus());
+        if (adoptionStatus != null) {
+            pet.setAdoptionStatus(adoptionStatus);
+        }
+        pet.setImageUrls(sanitizeImageUrls(request.getImageUrls()));
+        pet.setListedBy(user);
+        return pet;
+    }
+
+    // Edits the managed list in place so Hibernate writes only the positions that changed
+    // (update, append or trim) instead of deleting and re-inserting every image row.
+    private void replaceImageUrls(List<String> current, List<String> updated) {
+        int common = Math.min(current.size(), updated.size());
+        for (int i = 0; i < common; i++) {
+            if (!Objects.equals(current.get(i), updated.get(i))) {
+                current.set(i, updated.get(i));
+            }
+        }
+        if (updated.size() > common) {
+            current.addAll(updated.subList(common, updated.size()));
+        }
+        while (current.size() > updated.size()) {
+            current.remove(current.size() - 1);
+        }
+    }
+
+    // Explicit lat/lng win; otherwise coordinates follow the map link. An edit that sends neither
+    // and keeps the same link leaves stored coordinates alone (the edit form never sends lat/lng).
+    private void applyCoordinates(Pet pet, PetRequest request, boolean locationLinkChanged) {
+        if (request.getLatitude() == null && request.getLongitude() == null && !locationLinkChanged) {
+            return;
+        }
+        double[] coordinates;
+        if (request.getLatitude() != null || request.getLongitude() != null) {
+            if (!GeoUtils.isValidCoordinate(request.getLatitude(), request.getLongitude())) {
+                throw new CustomException("Invalid coordinates");
+            }
+            coordinates = new double[] {request.getLatitude(), request.getLongitude()};
+        } else {
+            coordinates = GeoUtils.parseMapLink(pet.getLocationLink());
+            pet.setLocationLinkParsed(true);
+        }
+
+        if (coordinates == null) {
+            pet.setLatitude(null);
+            pet.setLongitude(null);
+            pet.setGeohash(null);
+            return;
+        }
+        pet.setLatitude(coordinates[0]);
+        pet.setLongitude(coordinates[1]);
+        pet.setGeohash(GeoUtils.encodeGeohash(coordinates[0], coordinates[1], GeoUtils.STORED_GEOHASH_PRECISION));
+    }
+
+    private void validateFilter(PetFilter filter) {
+        if (filter.getMinAge() != null && filter.getMaxAge() != null && filter.getMinAge() > filter.getMaxAge()) {
+            throw new CustomException("minAge cannot be greater than maxAge");
+        }
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new CustomException("Limit must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
     private List<String> sanitizeImageUrls(List<String> imageUrls) {
         if (imageUrls == null) {
             return new ArrayList<>();
@@ -0,0 +1,123 @@
+package com.adoptme.service;
+
+import com.adoptme.entity.ChatMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Read acknowledgements arrive once per viewed message; they are coalesced per (reader, peer) and
+// written as one batched UPDATE per flush interval that moves the cursor to the highest message id.
+@Service
+public class ReadReceiptService {
+    // The cursor only moves forward. Reading up to the newest message clears the unread count; a
+    // partial read subtracts the acknowledged messages past the old cursor. Neither reads
+    // chat_messages.
+    private static final String ADVANCE_CURSOR_SQL =
+            "UPDATE conversation_summaries s SET last_read_message_id = ?, " +
+            "unread_count = CASE WHEN ? >= s.last_message_id THEN 0 ELSE GREATEST(s.unread_count - " +
+            "(SELECT count(*) FROM unnest(?) AS r(id) WHERE r.id > COALESCE(s.last_read_message_id, 0)), 0) END " +
+            "WHERE s.owner_id = ? AND s.peer_id = ? " +
+            "AND (s.last_read_message_id IS NULL OR s.last_read_message_id < ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    // Distinct acknowledged message ids per conversation since the last flush.
+    private final Map<Conversation, Set<Long>> pending = new ConcurrentHashMap<>();
+
+    public void acknowledge(Long readerId, Long peerId, Long messageId) {
+        pending.compute(new Conversation(readerId, peerId), (conversation, messageIds) -> {
+            Set<Long> ids = messageIds != null ? messageIds : new HashSet<>();
+            ids.add(messageId);
+            return ids;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.chat.read-flush-interval-ms:1000}")
+    public void flush() {
+        List<Conversation> conversations = new ArrayList<>();
+        List<Set<Long>> acknowledged = new ArrayList<>();
+        List<Long> cursors = new ArrayList<>();
+        for (Conversation conversation : new ArrayList<>(pending.keySet())) {
+            Set<Long> messageIds = pending.remove(conversation);
+            if (messageIds == null) {
+                continue;
+            }
+            conversations.add(conversation);
+            acknowledged.add(messageIds);
+            cursors.add(Collections.max(messageIds));
+        }
+        if (conversations.isEmpty()) {
+            return;
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(ADVANCE_CURSOR_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Conversation conversation = conversations.get(i);
+                Long cursor = cursors.get(i);
+                ps.setLong(1, cursor);
+                ps.setLong(2, cursor);
+                ps.setArray(3, ps.getConnection().createArrayOf("bigint", acknowledged.get(i).toArray()));
+                ps.setLong(4, conversation.readerId);
+                ps.setLong(5, conversation.peerId);
+                ps.setLong(6, cursor);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return conversations.size();
+            }
+        });
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                continue;
+            }
+            // Tell the peer how far the reader has got (a coalesced read receipt).
+            Conversation conversation = conversations.get(i);
+            messagingTemplate.convertAndSend(
+                    "/topic/chat/" + ChatMessage.conversationKey(conversation.readerId, conversation.peerId) + "/read",
+                    Map.of("readerId", conversation.readerId, "lastReadMessageId", cursors.get(i)));
+        }
+    }
+
+    private static final class Conversation {
+        private final Long readerId;
+        private final Long peerId;
+
+        private Conversation(Long readerId, Long peerId) {
+            this.readerId = readerId;
+            this.peerId = peerId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Conversation that = (Conversation) o;
+            return Objects.equals(readerId, that.readerId) && Objects.equals(peerId, that.peerId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(readerId, peerId);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.adoptme.service;
+
+import com.adoptme.config.UploadConfig;
+import com.adoptme.dto.UploadJobResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Asynchronous image uploads: the request only spools the file to disk and queues a job; a worker
+// stores it and announces the result on /topic/upload-jobs/{id}. Job ids are random UUIDs, and
+// finished jobs are kept for app.uploads.jobs.retention-ms so clients can still poll them.
+@Service
+public class UploadJobService {
+    public static final String TOPIC = "/topic/upload-jobs/";
+
+    @Autowired
+    private ImageUploadService imageUploadService;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    @Qualifier(UploadConfig.UPLOAD_JOB_EXECUTOR)
+    private ThreadPoolTaskExecutor jobExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.uploads.jobs.retention-ms:3600000}")
+    private long retentionMs;
+
+    private final Map<String, UploadJob> jobs = new ConcurrentHashMap<>();
+    private Timer jobLatency;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("upload.jobs.queued", jobExecutor, executor -> executor.getThreadPoolExecutor().getQueue().size())
+                .description("Upload jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("upload.jobs.active", jobExecutor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Upload jobs being stored")
+                .register(meterRegistry);
+        jobLatency = Timer.builder("upload.jobs.latency")
+                .description("Time from accepting an upload job to its completion")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public UploadJobResponse submit(MultipartFile file, Long userId) throws IOException {
+        String extension = imageUploadService.extensionFor(file);
+        Path spooled = imageUploadService.spool(file);
+
+        UploadJob job = new UploadJob(UUID.randomUUID().toString(), userId);
+        jobs.put(job.id, job);
+        try {
+            jobExecutor.execute(() -> run(job, spooled, extension));
+        } catch (TaskRejectedException ex) {
+            jobs.remove(job.id);
+            Files.deleteIfExists(spooled);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Upload queue is full, try again shortly");
+        }
+        return job.toResponse();
+    }
+
+    // Jobs are only visible to the user who submitted them.
+    public UploadJobResponse getJob(String jobId, Long userId) {
+        UploadJob job = jobs.get(jobId);
+        if (job == null || !job.ownerId.equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload job not found");
+        }
+        return job.toResponse();
+    }
+
+    private void run(UploadJob job, Path spooled, String extension) {
+        job.status = Status.RUNNING;
+        try {
+            job.imageUrl = imageUploadService.store(spooled, extension);
+            job.status = Status.SUCCEEDED;
+        } catch (Exception ex) {
+            System.err.println("Upload job " + job.id + " failed: " + ex.getMessage());
+            job.error = "Upload failed";
+            job.status = Status.FAILED;
+        } finally {
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException ex) {
+                System.err.println("Could not delete spooled upload " + spooled + ": " + ex.getMessage());
+            }
+        }
+        job.completedAt = LocalDateTime.now();
+        jobLatency.record(Duration.between(job.createdAt, job.completedAt));
+        messagingTemplate.convertAndSend(TOPIC + job.id, job.toResponse());
+    }
+
+    @Scheduled(fixedDelayString = "${app.uploads.jobs.purge-interval-ms:300000}")
+    public void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(retentionMs));
+        jobs.values().removeIf(job -> job.completedAt != null && job.completedAt.isBefore(cutoff));
+    }
+
+    private enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private static class UploadJob {
+        private final String id;
+        private final Long ownerId;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile Status status = Status.QUEUED;
+        private volatile String imageUrl;
+        private volatile String error;
+        private volatile LocalDateTime completedAt;
+
+        private UploadJob(String id, Long ownerId) {
+            this.id = id;
+            this.ownerId = ownerId;
+        }
+
+        private UploadJobResponse toResponse() {
+            return new UploadJobResponse(id, status.name(), imageUrl, error, createdAt, completedAt);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.adoptme.util;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class GeoUtils {
+    public static final int STORED_GEOHASH_PRECISION = 9;
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private static final String NUMBER = "(-?\\d{1,3}(?:\\.\\d+)?)";
+    private static final String COMMA = "\\s*(?:,|%2C)\\s*";
+
+    // Most specific first: a place pin (!3d..!4d..) beats query coordinates, which beat the viewport centre (@lat,lng).
+    private static final List<Pattern> MAP_LINK_PATTERNS = List.of(
+            Pattern.compile("!3d" + NUMBER + "!4d" + NUMBER),
+            Pattern.compile("[?&](?:q|query|ll|sll|destination|daddr|center)=(?:loc:)?" + NUMBER + COMMA + NUMBER),
+            Pattern.compile("[?&]mlat=" + NUMBER + "&mlon=" + NUMBER),
+            Pattern.compile("@" + NUMBER + COMMA + NUMBER),
+            Pattern.compile("#map=\\d+(?:\\.\\d+)?/" + NUMBER + "/" + NUMBER),
+            Pattern.compile("^geo:" + NUMBER + COMMA + NUMBER)
+    );
+
+    private GeoUtils() {
+    }
+
+    public static boolean isValidCoordinate(Double latitude, Double longitude) {
+        return latitude != null && longitude != null
+                && latitude >= -90 && latitude <= 90
+                && longitude >= -180 && longitude <= 180;
+    }
+
+    // Returns {latitude, longitude}, or null when the link carries no recognisable coordinates.
+    public static double[] parseMapLink(String link) {
+        if (link == null || link.isBlank()) {
+            return null;
+        }
+        String value = link.trim();
+        for (Pattern pattern : MAP_LINK_PATTERNS) {
+            Matcher matcher = pattern.matcher(value);
+            if (matcher.find()) {
+                double latitude = Double.parseDouble(matcher.group(1));
+                double longitude = Double.parseDouble(matcher.group(2));
+                if (isValidCoordinate(latitude, longitude)) {
+                    return new double[] {latitude, longitude};
+                }
+            }
+        }
+        return null;
+    }
+
+    public static String encodeGeohash(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLng = -180, maxLng = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLng = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    // Geohash prefixes whose cells together cover every point within radiusKm of the centre:
+    // the cell containing the centre plus its eight neighbours, at the finest precision whose
+    // cells are still at least radiusKm wide and tall.
+    public static Set<String> coveringCells(double latitude, double longitude, double radiusKm) {
+        int precision = 1;
+        for (int candidate = STORED_GEOHASH_PRECISION; candidate >= 1; candidate--) {
+            if (cellHeightKm(candidate) >= radiusKm && cellWidthKm(candidate, latitude) >= radiusKm) {
+                precision = candidate;
+                break;
+            }
+        }
+
+        double latStep = cellHeightDegrees(precision);
+        double lngStep = cellWidthDegrees(precision);
+        Set<String> cells = new LinkedHashSet<>();
+        for (int dLat = -1; dLat <= 1; dLat++) {
+            for (int dLng = -1; dLng <= 1; dLng++) {
+                double lat = Math.max(-90, Math.min(90, latitude + dLat * latStep));
+                double lng = wrapLongitude(longitude + dLng * lngStep);
+                cells.add(encodeGeohash(lat, lng, precision));
+            }
+        }
+        return cells;
+    }
+
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static double cellHeightDegrees(int precision) {
+        return 180.0 / Math.pow(2, (5 * precision) / 2);
+    }
+
+    private static double cellWidthDegrees(int precision) {
+        return 360.0 / Math.pow(2, (5 * precision + 1) / 2);
+    }
+
+    private static double cellHeightKm(int precision) {
+        return cellHeightDegrees(precision) * KM_PER_DEGREE;
+    }
+
+    private static double cellWidthKm(int precision, double latitude) {
+        return cellWidthDegrees(precision) * KM_PER_DEGREE * Math.cos(Math.toRadians(latitude));
+    }
+
+    private static double wrapLongitude(double longitude) {
+        if (longitude >= 180) {
+            return longitude - 360;
+        }
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        return longitude;
+    }
+}
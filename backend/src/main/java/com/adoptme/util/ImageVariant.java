@@ -0,0 +1,50 @@
+package com.adoptme.util;
+
+import java.util.Locale;
+
+// Responsive sizes served for pet photos; images are scaled down to maxWidth, never up.
+public enum ImageVariant {
+    THUMB(160),
+    CARD(480),
+    FULL(1600);
+
+    private static final String CLOUDINARY_HOST = "://res.cloudinary.com/";
+    private static final String CLOUDINARY_UPLOAD_SEGMENT = "/image/upload/";
+
+    private final int maxWidth;
+
+    ImageVariant(int maxWidth) {
+        this.maxWidth = maxWidth;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static ImageVariant fromKey(String key) {
+        for (ImageVariant variant : values()) {
+            if (variant.key().equals(key)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+
+    // Cloudinary resizes on delivery, so a variant is the original URL with a transformation inserted
+    // after /image/upload/. Other URLs are returned unchanged.
+    public String cloudinaryUrl(String url) {
+        if (url == null || !url.contains(CLOUDINARY_HOST)) {
+            return url;
+        }
+        int index = url.indexOf(CLOUDINARY_UPLOAD_SEGMENT);
+        if (index < 0) {
+            return url;
+        }
+        int insertAt = index + CLOUDINARY_UPLOAD_SEGMENT.length();
+        return url.substring(0, insertAt) + "c_limit,w_" + maxWidth + ",f_auto,q_auto/" + url.substring(insertAt);
+    }
+}
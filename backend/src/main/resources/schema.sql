@@ -0,0 +1,69 @@
+-- Runs after Hibernate's ddl-auto=update (see spring.jpa.defer-datasource-initialization).
+-- Every statement must be idempotent because the script is applied on each startup.
+
+-- Keyset pagination over the pet listing: ORDER BY created_at DESC, id DESC.
+CREATE INDEX IF NOT EXISTS idx_pets_created_at_id ON pets (created_at DESC, id DESC);
+
+-- Pet search (PetRepository.searchIds). pg_trgm serves fuzzy and '%term%' matching on
+-- location/landmark; the tsvector index serves ranked full-text search over name/description.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_pets_location_trgm ON pets USING gin (lower(location) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_pets_landmark_trgm ON pets USING gin (lower(landmark) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_pets_search_document ON pets
+    USING gin (to_tsvector('english', coalesce(name, '') || ' ' || coalesce(description, '')));
+
+-- "Pets near me" (PetRepositoryImpl.findCoordinatesInCells): geohash prefix LIKEs as index range scans.
+CREATE INDEX IF NOT EXISTS idx_pets_geohash ON pets (geohash text_pattern_ops);
+
+-- pets.id moved from IDENTITY to the pooled pets_seq (allocation 50) so inserts can be batched.
+-- Keep the sequence ahead of ids that were assigned by the old identity column.
+SELECT setval('pets_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM pets), (SELECT last_value FROM pets_seq)));
+
+-- Optimistic locking (Pet.version): rows created before the column existed start at version 0.
+UPDATE pets SET version = 0 WHERE version IS NULL;
+
+-- Composable listing filters (PetRepositoryImpl.addFilterPredicates) for the common browse combinations.
+CREATE INDEX IF NOT EXISTS idx_pets_type_status_created ON pets (lower(type), adoption_status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_pets_status_created ON pets (adoption_status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_pets_age_id ON pets (age, id) WHERE age IS NOT NULL;
+-- Age sorts list pets with unknown age last, by id (PetRepositoryImpl.inSortOrder).
+CREATE INDEX IF NOT EXISTS idx_pets_unknown_age_id ON pets (id) WHERE age IS NULL;
+CREATE INDEX IF NOT EXISTS idx_pets_listed_by_created ON pets (listed_by, created_at DESC, id DESC);
+
+-- Pet.imageUrls is an ordered list (@OrderColumn position) so edits touch only changed rows.
+-- Hibernate cannot add a NOT NULL column to a populated table; add it here and number existing
+-- images in stored order. The unique index backs the per-row updates (pet_id, position) and image
+-- batch reads on databases created before the column existed (new tables get it as the primary key).
+ALTER TABLE pet_images ADD COLUMN IF NOT EXISTS position integer;
+UPDATE pet_images i SET position = o.pos
+FROM (SELECT ctid AS row_ctid, row_number() OVER (PARTITION BY pet_id ORDER BY ctid) - 1 AS pos
+      FROM pet_images WHERE position IS NULL) o
+WHERE i.ctid = o.row_ctid;
+ALTER TABLE pet_images ALTER COLUMN position SET NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_pet_images_pet_position ON pet_images (pet_id, position);
+
+-- ChatMessage.conversationKey: the normalised "min_max" pair key. Added and filled here for rows
+-- written before the column existed, then enforced like the other required columns.
+ALTER TABLE chat_messages ADD COLUMN IF NOT EXISTS conversation_key varchar(41);
+UPDATE chat_messages SET conversation_key = LEAST(sender_id, receiver_id) || '_' || GREATEST(sender_id, receiver_id)
+WHERE conversation_key IS NULL;
+ALTER TABLE chat_messages ALTER COLUMN conversation_key SET NOT NULL;
+
+-- Conversation history and pages (ChatMessageRepository.findConversation*): one range scan per page.
+-- The participant index serves the unread count behind a partial read (ReadReceiptService).
+-- ChatPartitionManager creates the same indexes when it converts the table to monthly partitions.
+CREATE INDEX IF NOT EXISTS idx_chat_messages_conversation_ts ON chat_messages (conversation_key, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_chat_messages_pair_id ON chat_messages (sender_id, receiver_id, id);
+
+-- Inbox (ConversationSummaryRepository.findInbox): a user's conversations, most recent first.
+CREATE INDEX IF NOT EXISTS idx_conversation_summaries_owner_recent ON conversation_summaries (owner_id, last_message_at DESC);
+
+-- One-time backfill of summaries from existing history; skipped once the table has any rows.
+-- Historic messages are treated as read.
+INSERT INTO conversation_summaries (owner_id, peer_id, last_message_id, last_message, last_message_at, unread_count)
+SELECT DISTINCT ON (m.owner_id, m.peer_id) m.owner_id, m.peer_id, m.id, m.content, m.timestamp, 0
+FROM (SELECT sender_id AS owner_id, receiver_id AS peer_id, id, content, timestamp FROM chat_messages
+      UNION ALL
+      SELECT receiver_id, sender_id, id, content, timestamp FROM chat_messages) m
+WHERE NOT EXISTS (SELECT 1 FROM conversation_summaries)
+ORDER BY m.owner_id, m.peer_id, m.id DESC;
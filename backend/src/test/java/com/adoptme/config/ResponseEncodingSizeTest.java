@@ -0,0 +1,154 @@
+package com.adoptme.config;
+
+import com.adoptme.dto.CursorPage;
+import com.adoptme.dto.PetFilter;
+import com.adoptme.dto.PetResponse;
+import com.adoptme.service.PetService;
+import com.adoptme.support.PetListingFixture;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Response encodings for a 1,000-pet page: plain JSON (the old behaviour), gzip-compressed JSON and
+// CBOR, each produced with the mapper the app's converters use. Sizes and serialization time are
+// compared; the HTTP test checks that the encodings are actually negotiated.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:encoding;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "server.compression.enabled=true",
+        "server.compression.mime-types=application/json,application/x-ndjson,text/csv,text/plain",
+        "server.compression.min-response-size=2KB"
+})
+class ResponseEncodingSizeTest extends PetListingFixture {
+    private static final int PET_COUNT = 1000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 25;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void loadPets() {
+        if (petRepository.count() < PET_COUNT) {
+            savePets(PET_COUNT, 2);
+        }
+    }
+
+    @Test
+    void thousandPetPageIsSmallerGzippedAndAsCbor() throws Exception {
+        CursorPage<PetResponse> page = thousandPetPage();
+        ObjectMapper cborMapper = cborConverter.getObjectMapper();
+
+        List<Encoding> encodings = encode(page, List.of(
+                objectMapper::writeValueAsBytes,
+                value -> gzip(objectMapper.writeValueAsBytes(value)),
+                cborMapper::writeValueAsBytes));
+        Encoding json = encodings.get(0);
+        Encoding gzipJson = encodings.get(1);
+        Encoding cbor = encodings.get(2);
+
+        assertTrue(gzipJson.bytes * 5 < json.bytes, "gzip should shrink the JSON page more than 5x");
+        assertTrue(cbor.bytes * 10 < json.bytes * 9, "CBOR should be at least 10% smaller than JSON");
+        // CBOR saves bytes without paying for compression.
+        assertTrue(cbor.medianNanos < gzipJson.medianNanos, "CBOR should serialize faster than gzip JSON");
+    }
+
+    @Test
+    void encodingsAreNegotiatedOverHttp() throws Exception {
+        HttpResponse<byte[]> gzipJson = get("application/json", "gzip");
+        HttpResponse<byte[]> cbor = get("application/cbor", "identity");
+
+        assertEquals("gzip", gzipJson.headers().firstValue("Content-Encoding").orElse("identity"));
+        assertTrue(cbor.headers().firstValue("Content-Type").orElse("").startsWith("application/cbor"));
+    }
+
+    // The listing caps pages at 100, so the 1,000 pets are gathered page by page.
+    private CursorPage<PetResponse> thousandPetPage() {
+        List<PetResponse> pets = new ArrayList<>();
+        String cursor = null;
+        while (pets.size() < PET_COUNT) {
+            CursorPage<PetResponse> page = petService.getPetsPage(new PetFilter(), cursor, 100);
+            pets.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        }
+        return new CursorPage<>(pets.subList(0, PET_COUNT), null, false);
+    }
+
+    // Rounds alternate between the serializers, so a GC pause or JIT compilation lands on all of
+    // them alike instead of skewing whichever was being timed.
+    private List<Encoding> encode(Object value, List<Serializer> serializers) throws IOException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            for (Serializer serializer : serializers) {
+                serializer.serialize(value);
+            }
+        }
+        long[][] timings = new long[serializers.size()][ROUNDS];
+        int[] sizes = new int[serializers.size()];
+        for (int i = 0; i < ROUNDS; i++) {
+            for (int s = 0; s < serializers.size(); s++) {
+                long started = System.nanoTime();
+                sizes[s] = serializers.get(s).serialize(value).length;
+                timings[s][i] = System.nanoTime() - started;
+            }
+        }
+        List<Encoding> encodings = new ArrayList<>();
+        for (int s = 0; s < serializers.size(); s++) {
+            Arrays.sort(timings[s]);
+            encodings.add(new Encoding(sizes[s], timings[s][ROUNDS / 2]));
+        }
+        return encodings;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private HttpResponse<byte[]> get(String accept, String acceptEncoding) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/pets?limit=100"))
+                .header("Accept", accept)
+                .header("Accept-Encoding", acceptEncoding)
+                .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, response.statusCode());
+        return response;
+    }
+
+    private interface Serializer {
+        byte[] serialize(Object value) throws IOException;
+    }
+
+    private record Encoding(int bytes, long medianNanos) {
+    }
+}
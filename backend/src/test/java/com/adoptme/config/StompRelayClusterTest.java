@@ -0,0 +1,205 @@
+package com.adoptme.config;
+
+import com.adoptme.AdoptMeApplication;
+import com.adoptme.dto.ChatMessageDto;
+import com.adoptme.service.ChatFanoutService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two backend nodes relaying to one embedded Artemis broker: this test's context (node A) runs the
+// broker, a second context (node B) only relays to it. A message fanned out on node A reaches
+// sessions on node B through the conversation topic and through /user/queue/messages.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = {AdoptMeApplication.class, StompRelayClusterTest.LoginPrincipal.class})
+class StompRelayClusterTest {
+    private static final int RELAY_PORT = freePort();
+
+    private static ConfigurableApplicationContext nodeB;
+
+    @DynamicPropertySource
+    static void relayProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.websocket.broker", () -> "relay");
+        registry.add("app.websocket.relay.port", () -> RELAY_PORT);
+        registry.add("app.websocket.embedded-broker.enabled", () -> "true");
+    }
+
+    @Autowired
+    private ChatFanoutService chatFanoutService;
+
+    @Autowired
+    private SimpUserRegistry userRegistry;
+
+    @BeforeEach
+    void startNodeB() {
+        if (nodeB == null) {
+            nodeB = new SpringApplicationBuilder(AdoptMeApplication.class, LoginPrincipal.class)
+                    .properties(
+                            "server.port=0",
+                            "spring.datasource.url=jdbc:h2:mem:node-b;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                            "spring.jmx.enabled=false",
+                            "app.websocket.broker=relay",
+                            "app.websocket.relay.port=" + RELAY_PORT)
+                    .run();
+        }
+    }
+
+    @AfterAll
+    static void stopNodeB() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+    }
+
+    @Test
+    void userQueueMessageReachesSessionOnAnotherNode() throws Exception {
+        int nodeBPort = Integer.parseInt(nodeB.getEnvironment().getProperty("local.server.port"));
+        StompSession session = connect(nodeBPort, "2");
+        BlockingQueue<Map<String, Object>> received = subscribe(session, "/user/queue/messages");
+
+        // Node A learns about node B's sessions and their subscriptions from the user registry
+        // broadcast, which runs every 10 seconds.
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (!subscribedOnAnyNode("2", "/user/queue/messages") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(200);
+        }
+        assertTrue(subscribedOnAnyNode("2", "/user/queue/messages"), "node A never saw user 2's subscription on node B");
+
+        chatFanoutService.broadcast(new ChatMessageDto(
+                42L, 1L, "Sender", 2L, "Receiver", "hello from node A", LocalDateTime.now()));
+
+        Map<String, Object> message = received.poll(10, TimeUnit.SECONDS);
+        assertNotNull(message, "no message on /user/queue/messages of node B");
+        assertEquals(42, ((Number) message.get("id")).intValue());
+        assertEquals("hello from node A", message.get("content"));
+        session.disconnect();
+    }
+
+    @Test
+    void topicMessageReachesSessionOnAnotherNode() throws Exception {
+        int nodeBPort = Integer.parseInt(nodeB.getEnvironment().getProperty("local.server.port"));
+        StompSession session = connect(nodeBPort, "1");
+        BlockingQueue<Map<String, Object>> received = subscribe(session, "/topic/chat/1_3");
+
+        chatFanoutService.broadcast(new ChatMessageDto(
+                43L, 1L, "Sender", 3L, "Receiver", "topic from node A", LocalDateTime.now()));
+
+        Map<String, Object> message = received.poll(10, TimeUnit.SECONDS);
+        assertNotNull(message, "no message on /topic/chat/1_3 of node B");
+        assertEquals(43, ((Number) message.get("id")).intValue());
+        assertEquals("topic from node A", message.get("content"));
+        session.disconnect();
+    }
+
+    // Returns once the broker has confirmed the subscription with a RECEIPT.
+    private BlockingQueue<Map<String, Object>> subscribe(StompSession session, String destination) throws Exception {
+        BlockingQueue<Map<String, Object>> received = new LinkedBlockingQueue<>();
+        CountDownLatch subscribed = new CountDownLatch(1);
+        session.setAutoReceipt(true);
+        StompSession.Subscription subscription = session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((Map<String, Object>) payload);
+            }
+        });
+        subscription.addReceiptTask(subscribed::countDown);
+        assertTrue(subscribed.await(10, TimeUnit.SECONDS), "no receipt for the subscription to " + destination);
+        return received;
+    }
+
+    private boolean subscribedOnAnyNode(String user, String destination) {
+        return !userRegistry.findSubscriptions(subscription -> subscription.getSession().getUser().getName().equals(user)
+                && subscription.getDestination().equals(destination)).isEmpty();
+    }
+
+    private StompSession connect(int serverPort, String userId) throws Exception {
+        WebSocketStompClient client = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        // Needed for RECEIPT tracking.
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        client.setTaskScheduler(scheduler);
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.setLogin(userId);
+        return client.connectAsync("http://localhost:" + serverPort + "/ws", new WebSocketHttpHeaders(),
+                connectHeaders, new StompSessionHandlerAdapter() {}).get(10, TimeUnit.SECONDS);
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // The app has no STOMP authentication yet; the test names each session after its CONNECT login
+    // so /user destinations resolve to user ids as ChatFanoutService expects.
+    @TestConfiguration
+    static class LoginPrincipal implements WebSocketMessageBrokerConfigurer {
+        @Override
+        public void configureClientInboundChannel(ChannelRegistration registration) {
+            registration.interceptors(new ChannelInterceptor() {
+                @Override
+                public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                    StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                    if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
+                        String login = accessor.getLogin();
+                        accessor.setUser(() -> login);
+                    }
+                    return message;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.adoptme.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Query plans for conversation pages on a partitioned chat_messages with ~100k generated rows:
+// every partition is read through the conversation index, and a cursor page prunes the months
+// after the cursor. Runs against PostgreSQL in a container; skipped when Docker is unavailable.
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class ChatMessageQueryPlanTest {
+    private static final int MESSAGES_PER_CONVERSATION = 200;
+    private static final String CONVERSATION_INDEX = "idx_chat_messages_conversation_ts";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.jpa.defer-datasource-initialization", () -> "true");
+        registry.add("spring.sql.init.mode", () -> "always");
+        registry.add("app.chat.partitioning.enabled", () -> "true");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private String conversationKey;
+
+    @BeforeEach
+    void generateMessages() {
+        Long existing = jdbcTemplate.queryForObject("SELECT count(*) FROM chat_messages", Long.class);
+        if (existing == null || existing == 0) {
+            jdbcTemplate.update("INSERT INTO users (name, email, password, role, verified) " +
+                    "SELECT 'User ' || g, 'user' || g || '@example.com', 'secret', 'USER', true " +
+                    "FROM generate_series(1, 1000) g");
+            // 500 conversations, each spread evenly over the current month and the three created ahead.
+            jdbcTemplate.update("INSERT INTO chat_messages (sender_id, receiver_id, content, timestamp, conversation_key) " +
+                    "SELECT CASE WHEN g % 2 = 0 THEN p.a ELSE p.b END, CASE WHEN g % 2 = 0 THEN p.b ELSE p.a END, " +
+                    "'message ' || g, ?::timestamp + g * interval '828 minutes' + p.n * interval '1 second', " +
+                    "LEAST(p.a, p.b) || '_' || GREATEST(p.a, p.b) " +
+                    "FROM (SELECT row_number() OVER (ORDER BY id) AS n, id AS a, lead(id) OVER (ORDER BY id) AS b FROM users) p, " +
+                    "generate_series(0, ?) g WHERE p.n % 2 = 1 AND p.b IS NOT NULL",
+                    YearMonth.now().atDay(1).atStartOfDay(), MESSAGES_PER_CONVERSATION - 1);
+            jdbcTemplate.execute("ANALYZE chat_messages");
+        }
+        conversationKey = jdbcTemplate.queryForObject(
+                "SELECT conversation_key FROM chat_messages ORDER BY sender_id, id LIMIT 1", String.class);
+    }
+
+    @Test
+    void latestPageReadsEveryPartitionThroughTheConversationIndex() throws Exception {
+        String plan = explain("findConversationLatest", new MapSqlParameterSource()
+                .addValue("conversationKey", conversationKey)
+                .addValue("limit", 51));
+
+        assertFalse(plan.contains("Seq Scan"), plan);
+        assertTrue(usesConversationIndex(plan), plan);
+    }
+
+    @Test
+    void cursorPagePrunesPartitionsAfterTheCursor() throws Exception {
+        Map<String, Object> cursor = jdbcTemplate.queryForMap(
+                "SELECT id, timestamp FROM chat_messages WHERE conversation_key = ? " +
+                "ORDER BY timestamp, id OFFSET ? LIMIT 1", conversationKey, MESSAGES_PER_CONVERSATION / 2);
+        LocalDateTime cursorTimestamp = ((java.sql.Timestamp) cursor.get("timestamp")).toLocalDateTime();
+
+        String plan = explain("findConversationBefore", new MapSqlParameterSource()
+                .addValue("conversationKey", conversationKey)
+                .addValue("timestamp", cursorTimestamp)
+                .addValue("id", cursor.get("id"))
+                .addValue("limit", 51));
+
+        assertFalse(plan.contains("Seq Scan"), plan);
+        assertTrue(usesConversationIndex(plan), plan);
+        YearMonth cursorMonth = YearMonth.from(cursorTimestamp);
+        assertTrue(plan.contains(partitionName(cursorMonth)), plan);
+        for (YearMonth month = cursorMonth.plusMonths(1); !month.isAfter(YearMonth.now().plusMonths(3)); month = month.plusMonths(1)) {
+            assertFalse(plan.contains(partitionName(month)), "partition " + month + " should be pruned:\n" + plan);
+        }
+    }
+
+    // EXPLAIN of the repository's own SQL, so the test follows any change to the queries.
+    private String explain(String repositoryMethod, MapSqlParameterSource parameters) throws Exception {
+        String sql = null;
+        for (var method : ChatMessageRepository.class.getMethods()) {
+            if (method.getName().equals(repositoryMethod)) {
+                sql = method.getAnnotation(Query.class).value();
+            }
+        }
+        List<String> lines = namedParameterJdbcTemplate.queryForList("EXPLAIN " + sql, parameters, String.class);
+        return String.join("\n", lines);
+    }
+
+    // On a partitioned table each partition has its own copy of the index, attached to the parent one.
+    private boolean usesConversationIndex(String plan) {
+        List<String> partitionIndexes = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass(?)", String.class, CONVERSATION_INDEX);
+        return partitionIndexes.stream().anyMatch(index -> plan.contains(" using " + index + " on "));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "chat_messages_p" + month.format(PARTITION_SUFFIX);
+    }
+}
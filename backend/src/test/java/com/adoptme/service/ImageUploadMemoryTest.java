@@ -0,0 +1,200 @@
+package com.adoptme.service;
+
+import com.adoptme.AdoptMeApplication;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Heap and wall-clock for uploading one listing's photos: the old path (each part read into a
+// byte[] and sent in turn) against uploadImages, which streams spooled files concurrently. Parts are
+// disk-backed like Tomcat's with file-size-threshold=0, and the storage backend is replaced by one
+// that reads the file and then waits as long as sending it over a 10 MB/s uplink would take.
+@SpringBootTest(classes = {AdoptMeApplication.class, ImageUploadMemoryTest.RemoteStorage.class})
+class ImageUploadMemoryTest {
+    private static final int FILES_PER_LISTING = 6;
+    private static final int FILE_SIZE = 4 * 1024 * 1024;
+    private static final long UPLINK_BYTES_PER_SECOND = 10L * 1024 * 1024;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private ImageUploadService imageUploadService;
+
+    @TempDir
+    Path partsDir;
+
+    private final List<byte[]> photos = new ArrayList<>();
+
+    @BeforeEach
+    void generatePhotos() {
+        Random random = new Random(42);
+        for (int i = 0; i < FILES_PER_LISTING; i++) {
+            byte[] photo = new byte[FILE_SIZE];
+            random.nextBytes(photo);
+            photos.add(photo);
+        }
+    }
+
+    @Test
+    void streamingUploadAllocatesLessAndFinishesSooner() throws Exception {
+        long listingBytes = (long) FILES_PER_LISTING * FILE_SIZE;
+        Measurement bytesPath = measure(parts -> {
+            for (MultipartFile part : parts) {
+                RemoteStorage.send(part.getBytes());
+            }
+        });
+        Measurement streamingPath = measure(parts ->
+                assertEquals(FILES_PER_LISTING, imageUploadService.uploadImages(parts).size()));
+
+        // The old path holds every photo on the heap in full; streaming only allocates copy buffers.
+        assertTrue(bytesPath.allocatedBytes >= listingBytes, "byte[] path allocated " + bytesPath.allocatedBytes);
+        assertTrue(streamingPath.allocatedBytes * 10 < listingBytes,
+                "streaming path allocated " + streamingPath.allocatedBytes + " bytes for " + listingBytes + " of photos");
+        // Sequential transfers against concurrent ones; the streaming path also hashes every photo.
+        assertTrue(bytesPath.elapsedMillis >= listingBytes * 1000 / UPLINK_BYTES_PER_SECOND);
+        assertTrue(streamingPath.elapsedMillis * 2 < bytesPath.elapsedMillis,
+                "streaming took " + streamingPath.elapsedMillis + " ms, byte[] path " + bytesPath.elapsedMillis + " ms");
+    }
+
+    // One warmup round, then the median of the measured rounds.
+    private Measurement measure(Upload upload) throws Exception {
+        upload.run(parts());
+        long[] allocated = new long[ROUNDS];
+        long[] elapsed = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            List<MultipartFile> parts = parts();
+            long allocatedBefore = allocatedBytes();
+            long started = System.nanoTime();
+            upload.run(parts);
+            elapsed[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            allocated[i] = allocatedBytes() - allocatedBefore;
+        }
+        Arrays.sort(allocated);
+        Arrays.sort(elapsed);
+        return new Measurement(allocated[ROUNDS / 2], elapsed[ROUNDS / 2]);
+    }
+
+    private List<MultipartFile> parts() throws IOException {
+        List<MultipartFile> parts = new ArrayList<>();
+        for (int i = 0; i < photos.size(); i++) {
+            Path part = Files.createTempFile(partsDir, "part-", ".tmp");
+            Files.write(part, photos.get(i));
+            parts.add(new DiskPart(part, "photo-" + i + ".jpg"));
+        }
+        return parts;
+    }
+
+    // Bytes allocated by all live threads, which includes the upload pool's workers.
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return Arrays.stream(threads.getThreadAllocatedBytes(threads.getAllThreadIds()))
+                .filter(bytes -> bytes > 0)
+                .sum();
+    }
+
+    private interface Upload {
+        void run(List<MultipartFile> parts) throws Exception;
+    }
+
+    private record Measurement(long allocatedBytes, long elapsedMillis) {
+    }
+
+    @TestConfiguration
+    static class RemoteStorage {
+        static void send(byte[] photo) throws IOException {
+            transfer(photo.length);
+        }
+
+        @Bean
+        @Primary
+        ImageStorage remoteImageStorage() {
+            return (file, sha256, extension) -> {
+                long size;
+                try (InputStream in = Files.newInputStream(file)) {
+                    size = in.transferTo(OutputStream.nullOutputStream());
+                }
+                transfer(size);
+                return "https://images.example.com/" + sha256 + "." + extension;
+            };
+        }
+
+        private static void transfer(long bytes) throws IOException {
+            try {
+                Thread.sleep(bytes * 1000 / UPLINK_BYTES_PER_SECOND);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            }
+        }
+    }
+
+    // A multipart part already written to disk, as Tomcat keeps it: getBytes reads the whole file and
+    // transferTo moves it.
+    private record DiskPart(Path file, String originalFilename) implements MultipartFile {
+        @Override
+        public String getName() {
+            return "files";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return originalFilename;
+        }
+
+        @Override
+        public String getContentType() {
+            return "image/jpeg";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            try {
+                return Files.size(file);
+            } catch (IOException ex) {
+                return 0;
+            }
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(file);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.move(file, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
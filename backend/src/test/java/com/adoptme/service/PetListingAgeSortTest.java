@@ -0,0 +1,101 @@
+package com.adoptme.service;
+
+import com.adoptme.dto.CursorPage;
+import com.adoptme.dto.PetFilter;
+import com.adoptme.dto.PetResponse;
+import com.adoptme.dto.PetSummary;
+import com.adoptme.entity.Pet;
+import com.adoptme.support.PetListingFixture;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Age sorts page through every pet: known ages in order, then pets with unknown age by id.
+@SpringBootTest
+@Transactional
+class PetListingAgeSortTest extends PetListingFixture {
+    private static final int PET_COUNT = 50;
+    private static final int PAGE_SIZE = 7;
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void loadPets() {
+        savePets(PET_COUNT, 0);
+        List<Pet> pets = petRepository.findAll();
+        for (int i = 0; i < pets.size(); i += 5) {
+            pets.get(i).setAge(null);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void ascendingAgeListsUnknownAgesLast() {
+        List<PetResponse> pets = pageThrough(
+                cursor -> petService.getPetsPage(filter(PetFilter.Sort.AGE_ASC), cursor, PAGE_SIZE));
+
+        assertEquals(expectedOrder(true), ids(pets, PetResponse::getId));
+    }
+
+    @Test
+    void descendingAgeListsUnknownAgesLast() {
+        List<PetResponse> pets = pageThrough(
+                cursor -> petService.getPetsPage(filter(PetFilter.Sort.AGE_DESC), cursor, PAGE_SIZE));
+
+        assertEquals(expectedOrder(false), ids(pets, PetResponse::getId));
+    }
+
+    @Test
+    void summariesFollowTheSameOrder() {
+        List<PetSummary> summaries = pageThrough(
+                cursor -> petService.getPetSummaries(filter(PetFilter.Sort.AGE_ASC), cursor, PAGE_SIZE));
+
+        assertEquals(expectedOrder(true), ids(summaries, PetSummary::getId));
+    }
+
+    private <T> List<T> pageThrough(Function<String, CursorPage<T>> pages) {
+        List<T> items = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<T> page = pages.apply(cursor);
+            items.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return items;
+    }
+
+    // (age, id) in the sort direction with unknown ages after the known ones.
+    private List<Long> expectedOrder(boolean ascending) {
+        Comparator<Integer> ages = ascending ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        Comparator<Long> ids = ascending ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        return petRepository.findAll().stream()
+                .sorted(Comparator.comparing(Pet::getAge, Comparator.nullsLast(ages)).thenComparing(Pet::getId, ids))
+                .map(Pet::getId)
+                .toList();
+    }
+
+    private static <T> List<Long> ids(List<T> items, Function<T, Long> id) {
+        return items.stream().map(id).toList();
+    }
+
+    private static PetFilter filter(PetFilter.Sort sort) {
+        PetFilter filter = new PetFilter();
+        filter.setSort(sort);
+        return filter;
+    }
+}
@@ -0,0 +1,78 @@
+package com.adoptme.service;
+
+import com.adoptme.dto.CursorPage;
+import com.adoptme.dto.PetFilter;
+import com.adoptme.dto.PetResponse;
+import com.adoptme.support.PetListingFixture;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Listing pages are read with one tuple query plus one batched image query, whatever the page size.
+@SpringBootTest
+@Transactional
+class PetListingQueryCountTest extends PetListingFixture {
+    private static final int PET_COUNT = 500;
+    private static final int IMAGES_PER_PET = 3;
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void loadPets() {
+        savePets(PET_COUNT, IMAGES_PER_PET);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void everyPetIsReachedWithTwoStatementsPerPage() {
+        List<PetResponse> pets = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<PetResponse> page = petService.getPetsPage(new PetFilter(), cursor, 100);
+            pets.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(PET_COUNT, pets.size());
+        assertTrue(pets.stream().allMatch(pet -> pet.getImageUrls().size() == IMAGES_PER_PET));
+        assertTrue(pets.stream().allMatch(pet -> LISTER_NAME.equals(pet.getListedByName())));
+        assertEquals(2L * pages, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void pageQueryCountDoesNotDependOnPageSize() {
+        CursorPage<PetResponse> small = petService.getPetsPage(new PetFilter(), null, 10);
+        long smallStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        CursorPage<PetResponse> large = petService.getPetsPage(new PetFilter(), small.getNextCursor(), 100);
+
+        assertEquals(10, small.getItems().size());
+        assertEquals(100, large.getItems().size());
+        assertEquals(2, smallStatements);
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,60 @@
+package com.adoptme.support;
+
+import com.adoptme.entity.Pet;
+import com.adoptme.entity.User;
+import com.adoptme.repository.ConversationSummaryRepository;
+import com.adoptme.repository.PetRepository;
+import com.adoptme.repository.UserRepository;
+import com.adoptme.service.PetFacetService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Listing data for tests on the H2 test database, shared by the listing tests.
+public abstract class PetListingFixture {
+    protected static final String LISTER_NAME = "Shelter";
+
+    @Autowired
+    protected PetRepository petRepository;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    // Both write with PostgreSQL's ON CONFLICT, which H2 does not support.
+    @MockBean
+    protected PetFacetService petFacetService;
+
+    @MockBean
+    protected ConversationSummaryRepository conversationSummaryRepository;
+
+    protected void savePets(int count, int imagesPerPet) {
+        User lister = new User();
+        lister.setName(LISTER_NAME);
+        lister.setEmail("shelter-" + UUID.randomUUID() + "@example.com");
+        lister.setPassword("secret");
+        lister.setRole(User.UserRole.NGO_LISTER);
+        lister.setVerified(true);
+        lister = userRepository.save(lister);
+
+        List<Pet> pets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Pet pet = new Pet();
+            pet.setName("Pet " + i);
+            pet.setAge(i % 15);
+            pet.setType(i % 2 == 0 ? "Dog" : "Cat");
+            pet.setDescription("Friendly, vaccinated and used to children. Looking for a calm home.");
+            pet.setContactNumber("1234567890");
+            pet.setLocation("Pune");
+            pet.setAdoptionStatus(Pet.AdoptionStatus.AVAILABLE);
+            pet.setListedBy(lister);
+            for (int j = 0; j < imagesPerPet; j++) {
+                pet.getImageUrls().add("https://images.example.com/" + i + "/" + j + ".jpg");
+            }
+            pets.add(pet);
+        }
+        petRepository.saveAll(pets);
+    }
+}
@@ -1,6 +1,6 @@
 import React, { useState, useEffect, useRef } from 'react';
 import api from '../services/api';
-import { connect, sendMessage, disconnect } from '../services/websocket';
+import { connect, sendMessage, sendReadReceipt, disconnect } from '../services/websocket';
 
 function ChatWindow({ currentUserId, otherUserId, otherUserName }) {
   const [messages, setMessages] = useState([]);
@@ -15,6 +15,9 @@ function ChatWindow({ currentUserId, otherUserId, otherUserName }) {
       if (message.senderId === otherUserId || message.receiverId === otherUserId) {
         setMessages(prev => [...prev, message]);
       }
+      if (message.senderId === otherUserId) {
+        sendReadReceipt(currentUserId, otherUserId, message.id);
+      }
     });
 
     return () => {
@@ -30,6 +33,7 @@ function ChatWindow({ currentUserId, otherUserId, otherUserName }) {
     try {
       const response = await api.get(`/chat/conversation?user1=${currentUserId}&user2=${otherUserId}`);
       setMessages(response.data);
+      api.post(`/chat/conversation/${otherUserId}/read`).catch(() => {});
     } catch (error) {
       console.error('Error loading conversation:', error);
     }
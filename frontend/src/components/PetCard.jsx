@@ -10,9 +10,9 @@ function PetCard({ pet, currentUser, onPetDeleted }) {
   const navigate = useNavigate();
   const [deleting, setDeleting] = useState(false);
 
-  const firstImage = Array.isArray(pet.imageUrls) && pet.imageUrls.length > 0
-    ? pet.imageUrls[0]
-    : (typeof pet.imageUrl === 'string' ? pet.imageUrl : null);
+  const firstImage = pet.images?.[0]?.card
+    || (Array.isArray(pet.imageUrls) && pet.imageUrls.length > 0 ? pet.imageUrls[0] : null)
+    || (typeof pet.imageUrl === 'string' ? pet.imageUrl : null);
   
   const imageCount = Array.isArray(pet.imageUrls) ? pet.imageUrls.length : (firstImage ? 1 : 0);
   
@@ -1,6 +1,6 @@
 import React, { useState } from 'react';
 import { useNavigate } from 'react-router-dom';
-import { addPet, uploadImage } from '../services/pet';
+import { addPet, uploadImages } from '../services/pet';
 
 function AddPet() {
   const navigate = useNavigate();
@@ -35,8 +35,7 @@ function AddPet() {
   };
 
   const uploadFiles = async (files) => {
-    const uploadPromises = files.map((file) => uploadImage(file));
-    return Promise.all(uploadPromises);
+    return uploadImages(files);
   };
 
   const handleUploadImages = async () => {
@@ -1,6 +1,6 @@
 import React, { useEffect, useState } from 'react';
 import { useNavigate, useParams, Link } from 'react-router-dom';
-import { getPetById, updatePet, uploadImage } from '../services/pet';
+import { getPetById, updatePet, uploadImages } from '../services/pet';
 
 function EditPet({ user }) {
   const navigate = useNavigate();
@@ -75,7 +75,7 @@ function EditPet({ user }) {
     setUploading(true);
     setError('');
     try {
-      const imageUrls = await Promise.all(selectedFiles.map((file) => uploadImage(file)));
+      const imageUrls = await uploadImages(selectedFiles);
       setFormData((prev) => ({
         ...prev,
         imageUrls: [...prev.imageUrls, ...imageUrls]
@@ -106,7 +106,7 @@ function EditPet({ user }) {
       let imageUrls = [...formData.imageUrls];
       if (selectedFiles.length > 0) {
         setUploading(true);
-        const uploadedUrls = await Promise.all(selectedFiles.map((file) => uploadImage(file)));
+        const uploadedUrls = await uploadImages(selectedFiles);
         imageUrls = [...imageUrls, ...uploadedUrls];
       }
 
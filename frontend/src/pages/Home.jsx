@@ -1,11 +1,14 @@
 import React, { useState, useEffect } from 'react';
 import PetCard from '../components/PetCard';
-import { getAllPets } from '../services/pet';
+import { getPetsPage } from '../services/pet';
 
 function Home({ user }) {
   const [pets, setPets] = useState([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [activeFilters, setActiveFilters] = useState({ location: '', type: '' });
   const [locationQuery, setLocationQuery] = useState('');
   const [typeQuery, setTypeQuery] = useState('');
 
@@ -17,8 +20,10 @@ function Home({ user }) {
     setLoading(true);
     setError('');
     try {
-      const data = await getAllPets({ location, type });
-      setPets(data);
+      const page = await getPetsPage({ location, type });
+      setPets(page.items);
+      setNextCursor(page.hasMore ? page.nextCursor : null);
+      setActiveFilters({ location, type });
     } catch (err) {
       setError('Failed to load pets');
     } finally {
@@ -26,6 +31,22 @@ function Home({ user }) {
     }
   };
 
+  const loadMore = async () => {
+    if (!nextCursor) {
+      return;
+    }
+    setLoadingMore(true);
+    try {
+      const page = await getPetsPage({ ...activeFilters, cursor: nextCursor });
+      setPets((prevPets) => [...prevPets, ...page.items]);
+      setNextCursor(page.hasMore ? page.nextCursor : null);
+    } catch (err) {
+      setError('Failed to load pets');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handlePetDeleted = (deletedPetId) => {
     setPets((prevPets) => prevPets.filter((pet) => pet.id !== deletedPetId));
   };
@@ -103,7 +124,7 @@ function Home({ user }) {
         <div className="flex items-center justify-between mb-8">
           <h2 className="text-2xl font-heading">Available for Adoption</h2>
           <span className="bg-brand-50 text-brand-600 px-4 py-1 rounded-full text-sm font-bold border border-brand-100">
-            {pets.length} {pets.length === 1 ? 'Friend' : 'Friends'} Found
+            {pets.length}{nextCursor ? '+' : ''} {pets.length === 1 && !nextCursor ? 'Friend' : 'Friends'} Found
           </span>
         </div>
 
@@ -135,6 +156,14 @@ function Home({ user }) {
             ))}
           </div>
         )}
+
+        {!loading && !error && nextCursor && (
+          <div className="flex justify-center mt-10">
+            <button type="button" onClick={loadMore} disabled={loadingMore} className="btn-primary py-3 px-10">
+              {loadingMore ? 'Loading...' : 'Load more'}
+            </button>
+          </div>
+        )}
       </div>
     </main>
   );
@@ -100,9 +100,16 @@ function Inbox() {
                     {formatTime(conversation.lastMessageAt)}
                   </span>
                 </div>
-                <p className="text-sm text-slate-500 truncate italic">
-                  {conversation.lastMessage || "No messages yet"}
-                </p>
+                <div className="flex items-center gap-2">
+                  <p className="flex-1 text-sm text-slate-500 truncate italic">
+                    {conversation.lastMessage || "No messages yet"}
+                  </p>
+                  {conversation.unreadCount > 0 && (
+                    <span className="min-w-[1.5rem] px-2 py-0.5 rounded-full bg-brand-500 text-white text-[11px] font-bold text-center">
+                      {conversation.unreadCount}
+                    </span>
+                  )}
+                </div>
               </div>
 
               {/* Arrow Indicator */}
@@ -22,9 +22,13 @@ function PetDetails({ user }) {
     if (!pet || !Array.isArray(pet.imageUrls) || pet.imageUrls.length === 0) {
       return [PLACEHOLDER_IMAGE];
     }
-    return pet.imageUrls;
+    return pet.imageUrls.map((url, i) => pet.images?.[i]?.full || url);
   }, [pet]);
 
+  const thumbnails = useMemo(() => (
+    images.map((img, i) => pet?.images?.[i]?.thumb || img)
+  ), [images, pet]);
+
   const canManage = Boolean(
     pet &&
     (user?.role === 'COMMON_LISTER' || user?.role === 'NGO_LISTER') &&
@@ -184,7 +188,7 @@ function PetDetails({ user }) {
                   className={`relative min-w-[100px] h-20 rounded-xl overflow-hidden border-2 transition-all 
                     ${activeImage === img ? 'border-brand-500 scale-95' : 'border-transparent opacity-70 hover:opacity-100'}`}
                 >
-                  <img src={img} className="w-full h-full object-cover" alt="" />
+                  <img src={thumbnails[i]} className="w-full h-full object-cover" alt="" />
                 </button>
               ))}
             </div>
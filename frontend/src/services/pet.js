@@ -22,12 +22,30 @@ export const uploadImage = async (file) => {
   throw new Error('Unexpected upload response format');
 };
 
+// The backend uploads each batch concurrently and accepts up to 6 files per request.
+const UPLOAD_BATCH_SIZE = 6;
+
+export const uploadImages = async (files) => {
+  const urls = [];
+  for (let i = 0; i < files.length; i += UPLOAD_BATCH_SIZE) {
+    const formData = new FormData();
+    files.slice(i, i + UPLOAD_BATCH_SIZE).forEach((file) => formData.append('files', file));
+
+    const response = await api.post('/pets/upload-images', formData, {
+      headers: { 'Content-Type': 'multipart/form-data' }
+    });
+    urls.push(...response.data);
+  }
+  return urls;
+};
+
 export const addPet = async (data) => {
   const response = await api.post('/pets/add', data);
   return response.data;
 };
 
-export const getAllPets = async ({ location = '', type = '' } = {}) => {
+// One page of listings: { items, nextCursor, hasMore }. Pass nextCursor back to get the next page.
+export const getPetsPage = async ({ location = '', type = '', cursor = null } = {}) => {
   const params = {};
   if (location) {
     params.location = location;
@@ -35,6 +53,9 @@ export const getAllPets = async ({ location = '', type = '' } = {}) => {
   if (type) {
     params.type = type;
   }
+  if (cursor) {
+    params.cursor = cursor;
+  }
 
   const response = await api.get('/pets', {
     params
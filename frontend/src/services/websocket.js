@@ -56,6 +56,17 @@ export const sendMessage = (senderId, receiverId, content) => {
   }
 };
 
+// The server coalesces these, so it is fine to send one per received message.
+export const sendReadReceipt = (readerId, peerId, messageId) => {
+  if (stompClient && stompClient.connected && messageId) {
+    stompClient.send('/app/read', {}, JSON.stringify({
+      readerId,
+      peerId,
+      messageId
+    }));
+  }
+};
+
 export const disconnect = () => {
   try {
     if (activeSubscription) {